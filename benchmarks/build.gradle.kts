@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    // the benchmarks live in the same package as the extensions to reach their package-private classes
+    jmh(project(":extensions:refresh-catalog"))
+    jmh(project(":extensions:policies"))
+
+    jmh(libs.rs.core.client)
+    jmh(libs.edc.ext.identity.did.core)
+    jmh(libs.edc.core.policy.engine)
+    jmh(libs.ih.spi.core)
+    jmh(libs.mockito.core)
+}
+
+jmh {
+    // report allocation rates next to the throughput numbers
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.registration.client.RegistryApiClient;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.registration.client.response.ApiResult;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures {@link RegistrationServiceNodeDirectory#getAll()} against a stubbed Registration Service and DID resolver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NodeDirectoryBenchmark {
+
+    @Param({ "100", "1000", "10000", "100000" })
+    private int participants;
+
+    @Param({ "1", "8" })
+    private int maxInFlight;
+
+    @Param({ "true", "false" })
+    private boolean didCache;
+
+    private RegistrationServiceNodeDirectory directory;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var monitor = mock(Monitor.class);
+        var participantList = IntStream.range(0, participants)
+                .mapToObj(i -> new ParticipantDto(StubDidResolverRegistry.did(i), ParticipantDto.OnboardingStatus.ONBOARDED))
+                .collect(Collectors.toList());
+        var apiClient = mock(RegistryApiClient.class);
+        when(apiClient.listParticipants()).thenReturn(ApiResult.success(participantList));
+
+        var cache = new DidDocumentCache(didCache ? Duration.ofHours(1) : Duration.ZERO, Math.max(participants, 1), Clock.systemUTC());
+        var circuitBreaker = new DidCircuitBreaker(1, Duration.ofSeconds(10), Duration.ofMinutes(10), Duration.ofMinutes(1), Clock.systemUTC());
+        var resolver = new FederatedCacheNodeResolver(StubDidResolverRegistry.withParticipants(participants), cache, circuitBreaker, endpointSelector(),
+                RefreshCatalogMetrics.disabled(), monitor);
+
+        BulkNodeResolver bulkResolver;
+        if (maxInFlight > 1) {
+            executor = Executors.newFixedThreadPool(maxInFlight);
+            bulkResolver = BulkNodeResolver.concurrent(resolver, executor, maxInFlight, Duration.ofSeconds(10), monitor);
+        } else {
+            bulkResolver = BulkNodeResolver.sequential(resolver, monitor);
+        }
+        directory = new RegistrationServiceNodeDirectory(apiClient, bulkResolver, RefreshCatalogMetrics.disabled(), monitor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public List<FederatedCacheNode> getAll() {
+        return directory.getAll();
+    }
+
+    // the stub Did Documents publish a single endpoint, which is never probed
+    private static EndpointSelector endpointSelector() {
+        return new EndpointSelector(url -> CompletableFuture.completedFuture(Duration.ZERO), Duration.ofMinutes(1), Duration.ofSeconds(1), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures {@link FederatedCacheNodeResolver#toFederatedCacheNode(ParticipantDto)} with and without a warm DID
+ * document cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NodeResolverBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean didCache;
+
+    private FederatedCacheNodeResolver resolver;
+    private ParticipantDto participant;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var cache = new DidDocumentCache(didCache ? Duration.ofHours(1) : Duration.ZERO, 16, Clock.systemUTC());
+        var circuitBreaker = new DidCircuitBreaker(1, Duration.ofSeconds(10), Duration.ofMinutes(10), Duration.ofMinutes(1), Clock.systemUTC());
+        resolver = new FederatedCacheNodeResolver(StubDidResolverRegistry.withParticipants(1), cache, circuitBreaker, endpointSelector(),
+                RefreshCatalogMetrics.disabled(), mock(Monitor.class));
+        participant = new ParticipantDto(StubDidResolverRegistry.did(0), ParticipantDto.OnboardingStatus.ONBOARDED);
+    }
+
+    @Benchmark
+    public Result<FederatedCacheNode> toFederatedCacheNode() {
+        return resolver.toFederatedCacheNode(participant);
+    }
+
+    // the stub Did Documents publish a single endpoint, which is never probed
+    private static EndpointSelector endpointSelector() {
+        return new EndpointSelector(url -> CompletableFuture.completedFuture(Duration.ZERO), Duration.ofMinutes(1), Duration.ofSeconds(1), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.engine.spi.PolicyContextImpl;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RegionConstraintFunction#evaluate} for an agent presenting a growing number of credentials.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegionConstraintFunctionBenchmark {
+
+    private static final Permission PERMISSION = Permission.Builder.newInstance().build();
+
+    @Param({ "1", "10", "100" })
+    private int credentials;
+
+    private final RegionConstraintFunction function = new RegionConstraintFunction();
+    private final List<String> regions = List.of("us", "apac", "eu");
+    private PolicyContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var claims = new HashMap<String, Object>();
+        for (var i = 0; i < credentials; i++) {
+            var credential = Credential.Builder.newInstance()
+                    .id("credential-" + i)
+                    .context("https://www.w3.org/2018/credentials/v1")
+                    .type("VerifiableCredential")
+                    .issuer("did:web:gaia-x")
+                    .issuanceDate(new Date())
+                    .credentialSubject(CredentialSubject.Builder.newInstance()
+                            .id("did:web:company1")
+                            .claim(i == credentials - 1 ? "region" : "claim-" + i, "eu")
+                            .build())
+                    .build();
+            claims.put("credential-" + i, credential);
+        }
+        context = new PolicyContextImpl(new ParticipantAgent(claims, Map.of()), AgentMemo.newContextInformation());
+    }
+
+    @Benchmark
+    public boolean evaluateEq() {
+        return function.evaluate(Operator.EQ, "eu", PERMISSION, context);
+    }
+
+    @Benchmark
+    public boolean evaluateIn() {
+        return function.evaluate(Operator.IN, regions, PERMISSION, context);
+    }
+}
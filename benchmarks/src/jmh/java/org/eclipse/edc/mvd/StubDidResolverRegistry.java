@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.spi.result.Result;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory {@link DidResolverRegistry} serving pre-built DID documents, so that benchmarks measure the directory
+ * and not the network.
+ */
+class StubDidResolverRegistry implements DidResolverRegistry {
+
+    private final Map<String, Result<DidDocument>> documents = new HashMap<>();
+
+    static String did(int index) {
+        return "did:web:participant-" + index;
+    }
+
+    static StubDidResolverRegistry withParticipants(int count) {
+        var registry = new StubDidResolverRegistry();
+        for (var i = 0; i < count; i++) {
+            var did = did(i);
+            var document = DidDocument.Builder.newInstance()
+                    .id(did)
+                    .service(List.of(
+                            new Service("#identity-hub", "IdentityHub", "http://participant-" + i + ":7171/api/identity-hub"),
+                            new Service("#dsp", FederatedCacheNodeResolver.IDS_MESSAGING, "http://participant-" + i + ":8282/api/dsp")))
+                    .build();
+            registry.documents.put(did, Result.success(document));
+        }
+        return registry;
+    }
+
+    @Override
+    public void register(DidResolver resolver) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Result<DidDocument> resolve(String didKey) {
+        return documents.getOrDefault(didKey, Result.failure("Unknown DID " + didKey));
+    }
+}
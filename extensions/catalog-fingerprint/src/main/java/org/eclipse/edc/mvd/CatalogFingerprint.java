@@ -0,0 +1,180 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes a content hash of a {@link Catalog} that only changes when its datasets, offered policies, distributions
+ * or data services change. Identifiers a provider generates anew for every catalog request, i.e. the catalog ID and
+ * the contract offer IDs, are left out, as are the ordering of datasets, offers and object fields.
+ * <p>
+ * The hash is computed from the JSON trees of the datasets, so that a caller that serializes the datasets anyway can
+ * pass in their trees and convert each dataset only once, see {@link #of(Catalog, Map)}.
+ * <p>
+ * Lives in a plain library module, so that modules comparing catalogs do not pull in the extension of the catalog
+ * store.
+ */
+public class CatalogFingerprint {
+
+    private static final String OFFERS_FIELD = "offers";
+
+    private final ObjectMapper mapper;
+
+    public CatalogFingerprint(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Returns the hex-encoded fingerprint, or null if the catalog cannot be serialized.
+     */
+    @Nullable
+    public String of(Catalog catalog) {
+        var datasetTrees = new HashMap<String, JsonNode>();
+        try {
+            if (catalog.getDatasets() != null) {
+                for (var dataset : catalog.getDatasets()) {
+                    datasetTrees.put(dataset.getId(), mapper.valueToTree(dataset));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return of(catalog, datasetTrees);
+    }
+
+    /**
+     * Returns the hex-encoded fingerprint of a catalog whose datasets have already been converted to JSON trees, or
+     * null if the rest of the catalog cannot be serialized.
+     *
+     * @param catalog      catalog, only its properties and data services are read.
+     * @param datasetTrees JSON trees of the datasets of the catalog, by dataset ID.
+     */
+    @Nullable
+    public String of(Catalog catalog, Map<String, JsonNode> datasetTrees) {
+        try {
+            var digest = newDigest();
+            update(digest, mapper.valueToTree(catalog.getProperties()));
+            var dataServices = new ArrayList<JsonNode>();
+            if (catalog.getDataServices() != null) {
+                for (var dataService : catalog.getDataServices()) {
+                    dataServices.add(mapper.valueToTree(dataService));
+                }
+            }
+            updateUnordered(digest, dataServices);
+            var datasetIds = new ArrayList<>(datasetTrees.keySet());
+            datasetIds.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+            for (var datasetId : datasetIds) {
+                updateText(digest, String.valueOf(datasetId));
+                updateDataset(digest, datasetTrees.get(datasetId));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void updateDataset(MessageDigest digest, JsonNode dataset) {
+        if (!dataset.isObject()) {
+            update(digest, dataset);
+            return;
+        }
+        digest.update((byte) '{');
+        for (var field : sortedFieldNames(dataset)) {
+            updateText(digest, field);
+            var value = dataset.get(field);
+            if (OFFERS_FIELD.equals(field) && value.isObject()) {
+                // the keys of the offers are the generated offer IDs
+                var offers = new ArrayList<JsonNode>(value.size());
+                value.elements().forEachRemaining(offers::add);
+                updateUnordered(digest, offers);
+            } else {
+                update(digest, value);
+            }
+        }
+        digest.update((byte) '}');
+    }
+
+    /**
+     * Adds the values in an order independent of the order they are given in, by sorting their own hashes.
+     */
+    private static void updateUnordered(MessageDigest digest, List<JsonNode> values) {
+        var hashes = new ArrayList<String>(values.size());
+        for (var value : values) {
+            var valueDigest = newDigest();
+            update(valueDigest, value);
+            hashes.add(HexFormat.of().formatHex(valueDigest.digest()));
+        }
+        hashes.sort(null);
+        digest.update((byte) '[');
+        hashes.forEach(hash -> updateText(digest, hash));
+        digest.update((byte) ']');
+    }
+
+    /**
+     * Adds a JSON tree with the fields of every object in the order of their names.
+     */
+    private static void update(MessageDigest digest, @Nullable JsonNode node) {
+        if (node == null) {
+            updateText(digest, "null");
+        } else if (node.isObject()) {
+            digest.update((byte) '{');
+            for (var field : sortedFieldNames(node)) {
+                updateText(digest, field);
+                update(digest, node.get(field));
+            }
+            digest.update((byte) '}');
+        } else if (node.isArray()) {
+            digest.update((byte) '[');
+            node.elements().forEachRemaining(element -> update(digest, element));
+            digest.update((byte) ']');
+        } else {
+            updateText(digest, node.toString());
+        }
+    }
+
+    private static List<String> sortedFieldNames(JsonNode node) {
+        var names = new ArrayList<String>(node.size());
+        node.fieldNames().forEachRemaining(names::add);
+        names.sort(null);
+        return names;
+    }
+
+    private static void updateText(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheStore;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link FederatedCacheStore} that knows the {@link CatalogFingerprint} of the catalog it holds for each participant,
+ * and can keep a catalog that was not saved again during a crawl run. Lets a crawl scheduler skip nodes whose catalog
+ * does not change without reading their catalogs back from the store or holding copies of them.
+ * <p>
+ * Participants are identified by the originator property of their catalogs, i.e. the target URL of their node.
+ */
+public interface FingerprintedCacheStore extends FederatedCacheStore {
+
+    /**
+     * Returns the fingerprint of the catalog stored for a participant, or null if there is none or it is not known,
+     * e.g. because the catalog was loaded rather than saved.
+     */
+    @Nullable
+    String getFingerprint(String participant);
+
+    /**
+     * Keeps the catalog of a participant in the store through the current crawl run although it is not saved again: it
+     * is not expired, whether {@link #expireAll()} has already been called in this run or is called next.
+     */
+    void retain(String participant);
+}
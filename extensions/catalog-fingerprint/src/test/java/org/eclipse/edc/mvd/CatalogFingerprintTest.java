@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.eclipse.edc.catalog.spi.Dataset;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogFingerprintTest {
+
+    private final CatalogFingerprint fingerprint = new CatalogFingerprint(new TypeManager().getMapper());
+
+    @Test
+    void of_ignoresGeneratedIdsAndOrder() {
+        var first = catalog(dataset("asset1", "text/plain"), dataset("asset2", "application/json"));
+        var second = catalog(dataset("asset2", "application/json"), dataset("asset1", "text/plain"));
+
+        assertThat(fingerprint.of(first)).isNotNull().isEqualTo(fingerprint.of(second));
+    }
+
+    @Test
+    void of_changesWithDatasetContent() {
+        var first = catalog(dataset("asset1", "text/plain"));
+        var second = catalog(dataset("asset1", "application/json"));
+
+        assertThat(fingerprint.of(first)).isNotEqualTo(fingerprint.of(second));
+    }
+
+    @Test
+    void of_datasetTreesOfCaller() {
+        var catalog = catalog(dataset("asset1", "text/plain"));
+        var datasetTrees = Map.<String, JsonNode>of("asset1", new TypeManager().getMapper().valueToTree(catalog.getDatasets().get(0)));
+
+        assertThat(fingerprint.of(catalog, datasetTrees)).isNotNull().isEqualTo(fingerprint.of(catalog));
+    }
+
+    @Test
+    void of_catalogWithoutDatasetsOrOffers() {
+        var withoutDatasets = Catalog.Builder.newInstance().id(UUID.randomUUID().toString()).build();
+        var datasetWithoutOffers = mock(Dataset.class);
+        when(datasetWithoutOffers.getId()).thenReturn("asset1");
+
+        assertThat(fingerprint.of(withoutDatasets)).isNotNull();
+        assertThat(fingerprint.of(catalog(datasetWithoutOffers))).isNotNull();
+    }
+
+    private static Catalog catalog(Dataset... datasets) {
+        return Catalog.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .datasets(List.of(datasets))
+                .dataServices(List.of())
+                .build();
+    }
+
+    private static Dataset dataset(String id, String contentType) {
+        return Dataset.Builder.newInstance()
+                .id(id)
+                .offer(id + ":" + UUID.randomUUID(), Policy.Builder.newInstance().build())
+                .property("contenttype", contentType)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+plugins {
+    `java-library`
+}
+
+dependencies {
+    api(libs.fc.spi.core)
+
+    implementation(project(":extensions:catalog-fingerprint"))
+
+    implementation(libs.edc.core.util)
+    implementation(libs.edc.spi.web)
+    implementation(libs.edc.spi.jsonld)
+    implementation(libs.edc.spi.transform)
+    implementation(libs.edc.ext.api.management.config)
+
+    testImplementation(libs.edc.core.junit)
+}
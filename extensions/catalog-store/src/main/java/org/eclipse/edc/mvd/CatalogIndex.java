@@ -0,0 +1,160 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.query.Criterion;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Secondary indexes of the datasets of the federated cache, on their ID and on a configured set of their properties.
+ * A lookup returns the IDs of the matching datasets by participant, so that a selective query only loads those.
+ * <p>
+ * The index is not thread-safe, the store guards it with its own lock.
+ */
+class CatalogIndex {
+
+    static final String DATASET_ID = "id";
+    static final String PROPERTY_PREFIX = "properties.";
+
+    private final Set<String> indexedProperties;
+    // dataset ID -> participants offering a dataset with that ID
+    private final Map<String, Set<String>> participantsByDatasetId = new HashMap<>();
+    // property key -> property value -> participant -> dataset IDs
+    private final Map<String, Map<String, Map<String, Set<String>>>> datasetsByProperty = new HashMap<>();
+    // participant -> dataset ID -> indexed property values, to remove the datasets of a replaced catalog
+    private final Map<String, Map<String, Map<String, String>>> indexedValues = new HashMap<>();
+
+    /**
+     * Constructs {@link CatalogIndex}
+     *
+     * @param indexedProperties keys of the dataset properties to index, in addition to the dataset ID.
+     */
+    CatalogIndex(Set<String> indexedProperties) {
+        this.indexedProperties = Set.copyOf(indexedProperties);
+    }
+
+    /**
+     * Whether dataset properties are indexed, i.e. whether the datasets must be provided with their properties.
+     */
+    public boolean indexesProperties() {
+        return !indexedProperties.isEmpty();
+    }
+
+    /**
+     * Indexes the datasets of a participant, replacing its previously indexed datasets.
+     *
+     * @param participant participant offering the datasets.
+     * @param datasets    dataset properties by dataset ID.
+     */
+    public void put(String participant, Map<String, Map<String, Object>> datasets) {
+        remove(participant);
+        var values = new HashMap<String, Map<String, String>>();
+        for (var dataset : datasets.entrySet()) {
+            var datasetId = dataset.getKey();
+            participantsByDatasetId.computeIfAbsent(datasetId, k -> new HashSet<>()).add(participant);
+            var datasetValues = new HashMap<String, String>();
+            for (var key : indexedProperties) {
+                var value = dataset.getValue().get(key);
+                if (value != null) {
+                    datasetValues.put(key, value.toString());
+                    datasetsByProperty.computeIfAbsent(key, k -> new HashMap<>())
+                            .computeIfAbsent(value.toString(), k -> new HashMap<>())
+                            .computeIfAbsent(participant, k -> new HashSet<>())
+                            .add(datasetId);
+                }
+            }
+            values.put(datasetId, datasetValues.isEmpty() ? Map.of() : datasetValues);
+        }
+        indexedValues.put(participant, values);
+    }
+
+    public void remove(String participant) {
+        var values = indexedValues.remove(participant);
+        if (values == null) {
+            return;
+        }
+        for (var dataset : values.entrySet()) {
+            var participants = participantsByDatasetId.get(dataset.getKey());
+            participants.remove(participant);
+            if (participants.isEmpty()) {
+                participantsByDatasetId.remove(dataset.getKey());
+            }
+            for (var value : dataset.getValue().entrySet()) {
+                var byValue = datasetsByProperty.get(value.getKey());
+                var byParticipant = byValue.get(value.getValue());
+                byParticipant.remove(participant);
+                if (byParticipant.isEmpty()) {
+                    byValue.remove(value.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of the datasets matching a criterion by participant, or null if the criterion cannot be served
+     * by the index. Only equality and "in" criteria on the dataset ID or an indexed property can be served.
+     *
+     * @param criterion criterion on a dataset, e.g. {@code id = asset-1} or {@code properties.key in [a, b]}.
+     */
+    @Nullable
+    public Map<String, Set<String>> lookup(Criterion criterion) {
+        var values = values(criterion);
+        if (values == null) {
+            return null;
+        }
+        var left = criterion.getOperandLeft().toString();
+        var result = new HashMap<String, Set<String>>();
+        if (DATASET_ID.equals(left)) {
+            for (var value : values) {
+                for (var participant : participantsByDatasetId.getOrDefault(value, Set.of())) {
+                    result.computeIfAbsent(participant, k -> new HashSet<>()).add(value);
+                }
+            }
+            return result;
+        }
+        if (left.startsWith(PROPERTY_PREFIX) && indexedProperties.contains(left.substring(PROPERTY_PREFIX.length()))) {
+            var byValue = datasetsByProperty.getOrDefault(left.substring(PROPERTY_PREFIX.length()), Map.of());
+            for (var value : values) {
+                byValue.getOrDefault(value, Map.of())
+                        .forEach((participant, datasetIds) -> result.computeIfAbsent(participant, k -> new HashSet<>()).addAll(datasetIds));
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the values an equality or "in" criterion matches, or null for any other criterion.
+     */
+    @Nullable
+    static Set<String> values(Criterion criterion) {
+        var operator = criterion.getOperator();
+        var right = criterion.getOperandRight();
+        if ("=".equals(operator) && right != null) {
+            return Set.of(right.toString());
+        }
+        if ("in".equalsIgnoreCase(operator) && right instanceof Collection) {
+            return ((Collection<?>) right).stream().map(String::valueOf).collect(Collectors.toSet());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file holding the catalogs of the federated cache, one entry per participant with one record per
+ * dataset. Only the positions of the records are kept on the heap, their content is read from the file on demand.
+ * <p>
+ * Saving the catalog of a participant appends a new entry and makes the previous one garbage, deleting it appends a
+ * tombstone. Every record carries a CRC32 checksum: an entry torn by a crash is cut off when the file is opened again,
+ * so the file always holds the last complete entry of each participant. {@link #compact(Map)} rewrites the live
+ * entries to a new file once the garbage dominates.
+ */
+class CatalogLog implements Closeable {
+
+    private static final byte CATALOG = 1;
+    private static final byte DATASET = 2;
+    private static final byte DELETE = 3;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path path;
+    private FileChannel channel;
+    private long end;
+
+    CatalogLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Position of a serialized catalog or dataset in the file.
+     */
+    static final class Location {
+        private final long position;
+        private final int length;
+
+        Location(long position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Catalog of a participant: the catalog without its datasets, and its datasets by ID.
+     */
+    static final class Entry {
+        private final Location catalog;
+        private final Map<String, Location> datasets;
+        private final long size;
+
+        private Entry(Location catalog, Map<String, Location> datasets, long size) {
+            this.catalog = catalog;
+            this.datasets = datasets;
+            this.size = size;
+        }
+
+        Location getCatalog() {
+            return catalog;
+        }
+
+        Map<String, Location> getDatasets() {
+            return datasets;
+        }
+
+        /**
+         * Number of bytes the entry takes in the file.
+         */
+        long getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * Opens the file, creating it if needed, and returns the entries it holds by participant.
+     */
+    public Map<String, Entry> open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var entries = new HashMap<String, Entry>();
+        var size = channel.size();
+        var position = 0L;
+        while (position < size) {
+            var entryStart = position;
+            var record = readRecord(position, size);
+            if (record == null) {
+                break;
+            }
+            position = record.next;
+            if (record.type == DELETE) {
+                entries.remove(record.participant);
+                continue;
+            }
+            if (record.type != CATALOG) {
+                break;
+            }
+            var datasets = new LinkedHashMap<String, Location>();
+            var complete = true;
+            for (var i = 0; i < record.datasetCount; i++) {
+                var dataset = readRecord(position, size);
+                if (dataset == null || dataset.type != DATASET) {
+                    complete = false;
+                    break;
+                }
+                position = dataset.next;
+                datasets.put(dataset.datasetId, dataset.content);
+            }
+            if (!complete) {
+                position = entryStart;
+                break;
+            }
+            entries.put(record.participant, new Entry(record.content, datasets, position - entryStart));
+        }
+        if (position < size) {
+            // torn or corrupted tail, keep the complete entries before it
+            channel.truncate(position);
+        }
+        end = position;
+        return entries;
+    }
+
+    /**
+     * Appends the catalog of a participant.
+     *
+     * @param participant participant the catalog originates from.
+     * @param catalog     serialized catalog without its datasets.
+     * @param datasets    serialized datasets by ID.
+     */
+    public Entry append(String participant, byte[] catalog, Map<String, byte[]> datasets) throws IOException {
+        var buffer = new ByteArrayOutputStream();
+        var start = end;
+        var catalogLocation = writeRecord(buffer, start, CATALOG, participant, null, datasets.size(), catalog);
+        var datasetLocations = new LinkedHashMap<String, Location>();
+        for (var dataset : datasets.entrySet()) {
+            datasetLocations.put(dataset.getKey(), writeRecord(buffer, start, DATASET, participant, dataset.getKey(), 0, dataset.getValue()));
+        }
+        write(buffer.toByteArray());
+        return new Entry(catalogLocation, datasetLocations, end - start);
+    }
+
+    /**
+     * Appends the tombstone of the catalog of a participant.
+     */
+    public void appendDelete(String participant) throws IOException {
+        var buffer = new ByteArrayOutputStream();
+        writeRecord(buffer, end, DELETE, participant, null, 0, new byte[0]);
+        write(buffer.toByteArray());
+    }
+
+    public byte[] read(Location location) throws IOException {
+        var buffer = ByteBuffer.allocate(location.length);
+        readFully(buffer, location.position);
+        return buffer.array();
+    }
+
+    /**
+     * Rewrites the given entries to a new file that atomically replaces the current one. The current file is only
+     * closed once it has been replaced, so that the log stays usable if compacting fails.
+     *
+     * @return the entries by participant, with their positions in the new file.
+     */
+    public Map<String, Entry> compact(Map<String, Entry> entries) throws IOException {
+        var tmp = path.resolveSibling(path.getFileName() + ".compact");
+        var result = new HashMap<String, Entry>();
+        try {
+            Files.deleteIfExists(tmp);
+            var compacted = new CatalogLog(tmp);
+            try {
+                compacted.open();
+                for (var entry : entries.entrySet()) {
+                    var datasets = new LinkedHashMap<String, byte[]>();
+                    for (var dataset : entry.getValue().datasets.entrySet()) {
+                        datasets.put(dataset.getKey(), read(dataset.getValue()));
+                    }
+                    result.put(entry.getKey(), compacted.append(entry.getKey(), read(entry.getValue().catalog), datasets));
+                }
+                compacted.channel.force(true);
+            } finally {
+                compacted.close();
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        var replaced = channel;
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        end = channel.size();
+        try {
+            replaced.close();
+        } catch (IOException ignored) {
+            // the file has been replaced already, failing to release the previous one must not fail the compaction
+        }
+        return result;
+    }
+
+    /**
+     * Number of bytes in the file, including garbage.
+     */
+    public long size() {
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        var buffer = ByteBuffer.wrap(bytes);
+        var position = end;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        end = position;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            var read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of catalog store file " + path);
+            }
+        }
+    }
+
+    /**
+     * Appends a record to the buffer and returns the location of its content, given the file position of the buffer.
+     */
+    private static Location writeRecord(ByteArrayOutputStream buffer, long bufferPosition, byte type, String participant, String datasetId, int datasetCount,
+                                        byte[] content) throws IOException {
+        var payloadBuffer = new ByteArrayOutputStream(content.length + 64);
+        var payload = new DataOutputStream(payloadBuffer);
+        payload.writeByte(type);
+        payload.writeUTF(participant);
+        if (type == CATALOG) {
+            payload.writeInt(datasetCount);
+        } else if (type == DATASET) {
+            payload.writeUTF(datasetId);
+        }
+        var contentOffset = payload.size();
+        payload.write(content);
+        var bytes = payloadBuffer.toByteArray();
+
+        var crc = new CRC32();
+        crc.update(bytes);
+        var out = new DataOutputStream(buffer);
+        var recordPosition = bufferPosition + buffer.size();
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+        return new Location(recordPosition + RECORD_HEADER_SIZE + contentOffset, content.length);
+    }
+
+    /**
+     * Reads the record at the given position, or returns null if it is incomplete or corrupted.
+     */
+    private Record readRecord(long position, long size) throws IOException {
+        if (position + RECORD_HEADER_SIZE > size) {
+            return null;
+        }
+        var header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(header, position);
+        header.flip();
+        var length = header.getInt();
+        var checksum = header.getInt();
+        if (length <= 0 || position + RECORD_HEADER_SIZE + length > size) {
+            return null;
+        }
+        var bytes = ByteBuffer.allocate(length);
+        readFully(bytes, position + RECORD_HEADER_SIZE);
+        var crc = new CRC32();
+        crc.update(bytes.array());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        var payload = new DataInputStream(new ByteArrayInputStream(bytes.array()));
+        var record = new Record();
+        record.type = payload.readByte();
+        record.participant = payload.readUTF();
+        if (record.type == CATALOG) {
+            record.datasetCount = payload.readInt();
+        } else if (record.type == DATASET) {
+            record.datasetId = payload.readUTF();
+        }
+        var contentLength = payload.available();
+        record.content = new Location(position + RECORD_HEADER_SIZE + length - contentLength, contentLength);
+        record.next = position + RECORD_HEADER_SIZE + length;
+        return record;
+    }
+
+    private static final class Record {
+        private byte type;
+        private String participant;
+        private String datasetId;
+        private int datasetCount;
+        private Location content;
+        private long next;
+    }
+}
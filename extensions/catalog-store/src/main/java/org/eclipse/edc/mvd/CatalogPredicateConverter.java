@@ -0,0 +1,30 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.eclipse.edc.spi.query.BaseCriterionToPredicateConverter;
+import org.eclipse.edc.util.reflection.ReflectionUtil;
+
+/**
+ * Converts the criteria of a federated catalog query into predicates on the properties of a {@link Catalog}.
+ */
+class CatalogPredicateConverter extends BaseCriterionToPredicateConverter<Catalog> {
+
+    @Override
+    protected <R> R property(String key, Object object) {
+        return ReflectionUtil.getFieldValueSilent(object, key);
+    }
+}
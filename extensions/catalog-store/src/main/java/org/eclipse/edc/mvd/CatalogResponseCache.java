@@ -0,0 +1,131 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.query.Criterion;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of serialized pages of the federated catalog, keyed by the generation of the
+ * {@link PersistentFederatedCacheStore} and the query. Once the store has moved to a new generation all pages are
+ * dropped, the least recently used pages are evicted once the serialized catalogs of all pages exceed the maximum
+ * size. A page larger than the maximum size is not cached at all.
+ */
+class CatalogResponseCache {
+
+    private final long maxBytes;
+    private final Map<Key, CachedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long generation = -1;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Constructs {@link CatalogResponseCache}
+     *
+     * @param maxBytes maximum total size of the serialized catalogs of the cached pages, 0 disables the cache.
+     */
+    CatalogResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Serialized catalogs of a page, each one a compacted JSON-LD object, with the cursor of the next page.
+     */
+    static final class CachedPage {
+        private final List<byte[]> catalogs;
+        @Nullable
+        private final String next;
+        private final long size;
+
+        CachedPage(List<byte[]> catalogs, @Nullable String next) {
+            this.catalogs = catalogs;
+            this.next = next;
+            this.size = catalogs.stream().mapToLong(catalog -> catalog.length).sum();
+        }
+
+        List<byte[]> getCatalogs() {
+            return catalogs;
+        }
+
+        @Nullable
+        String getNext() {
+            return next;
+        }
+    }
+
+    @Nullable
+    public synchronized CachedPage get(long generation, List<Criterion> criteria, @Nullable String after, int limit) {
+        var page = generation == this.generation ? pages.get(key(criteria, after, limit)) : null;
+        if (page != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return page;
+    }
+
+    public synchronized void put(long generation, List<Criterion> criteria, @Nullable String after, int limit, CachedPage page) {
+        if (maxBytes == 0 || page.size > maxBytes || generation < this.generation) {
+            return;
+        }
+        if (generation > this.generation) {
+            pages.clear();
+            bytes = 0;
+            this.generation = generation;
+        }
+        var previous = pages.put(key(criteria, after, limit), page);
+        bytes += page.size - (previous != null ? previous.size : 0);
+        var eldest = pages.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().size;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Total size of the serialized catalogs of the cached pages.
+     */
+    public synchronized long getSize() {
+        return bytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private static Key key(List<Criterion> criteria, @Nullable String after, int limit) {
+        var query = criteria.stream()
+                .map(criterion -> Arrays.asList(criterion.getOperandLeft(), criterion.getOperator(), criterion.getOperandRight()))
+                .collect(Collectors.toList());
+        return new Key(query, after, limit);
+    }
+
+    /**
+     * Query of a page, with the operands of every criterion compared by value.
+     */
+    private record Key(List<List<Object>> criteria, @Nullable String after, int limit) {
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.Dataset;
+import org.eclipse.edc.spi.query.BaseCriterionToPredicateConverter;
+import org.eclipse.edc.util.reflection.ReflectionUtil;
+
+/**
+ * Converts the dataset criteria of a federated catalog query into predicates on a {@link Dataset}. Property keys are
+ * taken verbatim, as they are usually IRIs containing dots.
+ */
+class DatasetPredicateConverter extends BaseCriterionToPredicateConverter<Dataset> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <R> R property(String key, Object object) {
+        var dataset = (Dataset) object;
+        if (CatalogIndex.DATASET_ID.equals(key)) {
+            return (R) dataset.getId();
+        }
+        if (key.startsWith(CatalogIndex.PROPERTY_PREFIX)) {
+            return (R) dataset.getProperties().get(key.substring(CatalogIndex.PROPERTY_PREFIX.length()));
+        }
+        return ReflectionUtil.getFieldValueSilent(object, key);
+    }
+}
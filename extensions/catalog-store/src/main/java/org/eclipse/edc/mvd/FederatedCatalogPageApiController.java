@@ -0,0 +1,188 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.eclipse.edc.catalog.spi.model.FederatedCatalogCacheQuery;
+import org.eclipse.edc.jsonld.spi.JsonLd;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Pages through the federated catalog cache, as an alternative to the federated catalog API that returns all cached
+ * catalogs at once. Catalogs are ordered by participant, the cursor of the next page is returned in a {@code Link}
+ * header. {@code /federatedcatalog/pages/stream} streams all catalogs after the cursor instead, as
+ * {@code application/x-ndjson} with one compacted JSON-LD catalog per line, reading one page at a time from the cache.
+ * <p>
+ * Transforming and compacting catalogs to JSON-LD is expensive, so the serialized pages are kept in a
+ * {@link CatalogResponseCache} until the crawler changes the store, and repeated queries only copy bytes.
+ */
+@Consumes(MediaType.APPLICATION_JSON)
+@Path("/federatedcatalog/pages")
+public class FederatedCatalogPageApiController {
+
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 1000;
+
+    private final PersistentFederatedCacheStore store;
+    private final TypeTransformerRegistry transformerRegistry;
+    private final JsonLd jsonLd;
+    private final CatalogResponseCache responseCache;
+    private final Monitor monitor;
+
+    FederatedCatalogPageApiController(PersistentFederatedCacheStore store, TypeTransformerRegistry transformerRegistry, JsonLd jsonLd,
+                                      CatalogResponseCache responseCache, Monitor monitor) {
+        this.store = store;
+        this.transformerRegistry = transformerRegistry;
+        this.jsonLd = jsonLd;
+        this.responseCache = responseCache;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns a page of the cached catalogs matching the query.
+     *
+     * @param query  criteria the catalogs must match, may be empty.
+     * @param cursor cursor of the page, from the {@code Link} header of the previous page.
+     * @param limit  maximum number of catalogs of the page, 50 by default.
+     */
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getCatalogPage(FederatedCatalogCacheQuery query, @QueryParam("cursor") String cursor, @QueryParam("limit") Integer limit,
+                                   @Context UriInfo uriInfo) {
+        var pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new InvalidRequestException(format("limit must be between 1 and %d", MAX_LIMIT));
+        }
+        var page = page(criteria(query), decodeCursor(cursor), pageSize);
+        StreamingOutput body = output -> {
+            output.write('[');
+            for (var i = 0; i < page.getCatalogs().size(); i++) {
+                if (i > 0) {
+                    output.write(',');
+                }
+                output.write(page.getCatalogs().get(i));
+            }
+            output.write(']');
+        };
+        var response = Response.ok(body, MediaType.APPLICATION_JSON_TYPE);
+        if (page.getNext() != null) {
+            var next = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("cursor", encodeCursor(page.getNext()))
+                    .replaceQueryParam("limit", pageSize)
+                    .build();
+            response.link(next, "next");
+        }
+        return response.build();
+    }
+
+    /**
+     * Streams all cached catalogs matching the query, starting after the cursor.
+     */
+    @POST
+    @Path("/stream")
+    @Produces(APPLICATION_NDJSON)
+    public StreamingOutput streamCatalogs(FederatedCatalogCacheQuery query, @QueryParam("cursor") String cursor) {
+        var criteria = criteria(query);
+        var after = decodeCursor(cursor);
+        return output -> {
+            var next = after;
+            do {
+                var page = page(criteria, next, DEFAULT_LIMIT);
+                for (var catalog : page.getCatalogs()) {
+                    output.write(catalog);
+                    output.write('\n');
+                }
+                output.flush();
+                next = page.getNext();
+            } while (next != null);
+        };
+    }
+
+    /**
+     * Returns a page of serialized catalogs, from the response cache if the store has not changed since it was cached.
+     */
+    private CatalogResponseCache.CachedPage page(List<Criterion> criteria, @Nullable String after, int limit) {
+        var generation = store.getGeneration();
+        var cached = responseCache.get(generation, criteria, after, limit);
+        if (cached != null) {
+            return cached;
+        }
+        var page = store.query(criteria, after, limit);
+        var catalogs = new ArrayList<byte[]>(page.getCatalogs().size());
+        for (var catalog : page.getCatalogs()) {
+            var json = toJson(catalog);
+            if (json != null) {
+                catalogs.add(json.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        var serialized = new CatalogResponseCache.CachedPage(catalogs, page.getNext());
+        responseCache.put(generation, criteria, after, limit, serialized);
+        return serialized;
+    }
+
+    @Nullable
+    private JsonObject toJson(Catalog catalog) {
+        var result = transformerRegistry.transform(catalog, JsonObject.class)
+                .compose(jsonLd::compact);
+        if (result.failed()) {
+            monitor.warning(format("Skipping catalog %s: %s", catalog.getId(), result.getFailureDetail()));
+            return null;
+        }
+        return result.getContent();
+    }
+
+    private static List<Criterion> criteria(@Nullable FederatedCatalogCacheQuery query) {
+        return query != null && query.getQuery() != null ? query.getQuery() : List.of();
+    }
+
+    static String encodeCursor(String participant) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(participant.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    static String decodeCursor(@Nullable String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
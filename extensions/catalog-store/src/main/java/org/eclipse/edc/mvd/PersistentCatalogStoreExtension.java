@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheStore;
+import org.eclipse.edc.connector.api.management.configuration.ManagementApiConfiguration;
+import org.eclipse.edc.jsonld.spi.JsonLd;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Extension providing a federated cache store that keeps the crawled catalogs in a file instead of on the heap, and
+ * the management API paging through it.
+ */
+public class PersistentCatalogStoreExtension implements ServiceExtension {
+
+    @Setting(value = "File the federated cache store keeps the crawled catalogs in.")
+    private static final String CATALOG_STORE_PATH = "catalog.store.path";
+    private static final String DEFAULT_CATALOG_STORE_PATH = "catalog-store/catalogs.log";
+
+    @Setting(value = "Size in bytes the catalog store file must reach before its garbage is compacted.", type = "long")
+    private static final String CATALOG_STORE_COMPACTION_THRESHOLD_BYTES = "catalog.store.compaction.threshold.bytes";
+    private static final long DEFAULT_CATALOG_STORE_COMPACTION_THRESHOLD_BYTES = 16 * 1024 * 1024;
+
+    @Setting(value = "Comma-separated keys of the dataset properties indexed by the catalog store, in addition to the dataset ID.")
+    private static final String CATALOG_STORE_INDEXED_PROPERTIES = "catalog.store.indexed.properties";
+
+    @Setting(value = "Maximum total size in bytes of the serialized federated catalog pages kept in the response cache, 0 to disable it.", type = "long")
+    private static final String CATALOG_STORE_RESPONSE_CACHE_MAX_BYTES = "catalog.store.response.cache.max.bytes";
+    private static final long DEFAULT_CATALOG_STORE_RESPONSE_CACHE_MAX_BYTES = 32 * 1024 * 1024;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Inject
+    private Monitor monitor;
+
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private ManagementApiConfiguration managementApiConfiguration;
+
+    @Inject
+    private TypeTransformerRegistry transformerRegistry;
+
+    @Inject
+    private JsonLd jsonLd;
+
+    private PersistentFederatedCacheStore store;
+
+    @Override
+    public String name() {
+        return "Persistent federated catalog store";
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var responseCache = new CatalogResponseCache(context.getSetting(CATALOG_STORE_RESPONSE_CACHE_MAX_BYTES, DEFAULT_CATALOG_STORE_RESPONSE_CACHE_MAX_BYTES));
+        var controller = new FederatedCatalogPageApiController(store(context), transformerRegistry, jsonLd, responseCache, monitor);
+        webService.registerResource(managementApiConfiguration.getContextAlias(), controller);
+    }
+
+    @Provider
+    public FederatedCacheStore federatedCacheStore(ServiceExtensionContext context) {
+        return store(context);
+    }
+
+    @Override
+    public void shutdown() {
+        if (store != null) {
+            store.stop();
+        }
+    }
+
+    private PersistentFederatedCacheStore store(ServiceExtensionContext context) {
+        if (store == null) {
+            var path = Path.of(context.getSetting(CATALOG_STORE_PATH, DEFAULT_CATALOG_STORE_PATH));
+            var threshold = context.getSetting(CATALOG_STORE_COMPACTION_THRESHOLD_BYTES, DEFAULT_CATALOG_STORE_COMPACTION_THRESHOLD_BYTES);
+            var indexedProperties = Arrays.stream(context.getSetting(CATALOG_STORE_INDEXED_PROPERTIES, "").split(","))
+                    .map(String::trim)
+                    .filter(key -> !key.isEmpty())
+                    .collect(Collectors.toSet());
+            store = new PersistentFederatedCacheStore(new CatalogLog(path), typeManager.getMapper(), new CatalogPredicateConverter(), new DatasetPredicateConverter(),
+                    new CatalogIndex(indexedProperties), new CatalogFingerprint(typeManager.getMapper()), threshold, monitor);
+            store.start();
+        }
+        return store;
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.eclipse.edc.catalog.spi.Dataset;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.CriterionToPredicateConverter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+import static org.eclipse.edc.catalog.spi.CatalogConstants.PROPERTY_ORIGINATOR;
+
+/**
+ * Federated cache store keeping the crawled catalogs in a {@link CatalogLog} instead of on the heap, keyed by
+ * participant and dataset ID. The catalogs survive a restart of the connector and stay in the cache until the crawler
+ * expires them again.
+ * <p>
+ * Query criteria are served by the keys of the store and a {@link CatalogIndex} where possible:
+ * <ul>
+ *     <li>{@code properties.<originator property>} selects participants by key,</li>
+ *     <li>criteria prefixed with {@code datasets.}, e.g. {@code datasets.id} or {@code datasets.properties.<key>},
+ *     select datasets. Catalogs are returned with the matching datasets only, and catalogs without any are left out,</li>
+ *     <li>any other criterion applies to the catalog itself.</li>
+ * </ul>
+ * Only the datasets selected by the participant key and the index are read from the file, the remaining criteria are
+ * evaluated on them.
+ * <p>
+ * The store remembers the fingerprint of every catalog it saves, so that a crawl scheduler can tell whether a crawled
+ * catalog has changed, and keeps the catalogs of nodes the scheduler skipped without them being saved again.
+ */
+class PersistentFederatedCacheStore implements FingerprintedCacheStore {
+
+    private static final String PARTICIPANT_OPERAND = "properties." + PROPERTY_ORIGINATOR;
+    private static final String DATASET_PREFIX = "datasets.";
+
+    private final CatalogLog log;
+    private final ObjectMapper mapper;
+    private final CriterionToPredicateConverter converter;
+    private final CriterionToPredicateConverter datasetConverter;
+    private final CatalogIndex index;
+    private final CatalogFingerprint fingerprint;
+    private final long compactionThreshold;
+    private final Monitor monitor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, CatalogLog.Entry> entries = new TreeMap<>();
+    private final Set<String> expired = new HashSet<>();
+    // participants retained before the next expireAll
+    private final Set<String> retained = new HashSet<>();
+    // content hash of the last catalog saved for a participant, unknown for catalogs loaded from the file
+    private final Map<String, String> fingerprints = new HashMap<>();
+    private long liveBytes;
+    private volatile long generation;
+    private long unchangedSaves;
+
+    /**
+     * Constructs {@link PersistentFederatedCacheStore}
+     *
+     * @param log                 file holding the catalogs.
+     * @param mapper              serializes the catalogs and datasets.
+     * @param converter           converts catalog criteria into predicates.
+     * @param datasetConverter    converts dataset criteria into predicates.
+     * @param index               indexes the datasets.
+     * @param fingerprint         computes the content hash of the catalogs, to skip saving unchanged ones.
+     * @param compactionThreshold file size in bytes below which the file is never compacted.
+     * @param monitor             monitor
+     */
+    PersistentFederatedCacheStore(CatalogLog log, ObjectMapper mapper, CriterionToPredicateConverter converter, CriterionToPredicateConverter datasetConverter,
+                                  CatalogIndex index, CatalogFingerprint fingerprint, long compactionThreshold, Monitor monitor) {
+        this.log = log;
+        this.mapper = mapper;
+        this.converter = converter;
+        this.datasetConverter = datasetConverter;
+        this.index = index;
+        this.fingerprint = fingerprint;
+        this.compactionThreshold = compactionThreshold;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Opens the file and loads the positions of the catalogs it holds.
+     */
+    public void start() {
+        lock.writeLock().lock();
+        try {
+            entries.putAll(log.open());
+            for (var entry : entries.entrySet()) {
+                index.put(entry.getKey(), indexedProperties(entry.getValue()));
+            }
+            liveBytes = entries.values().stream().mapToLong(CatalogLog.Entry::getSize).sum();
+            monitor.info(format("Loaded %d catalogs from the federated cache store", entries.size()));
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void stop() {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } catch (IOException e) {
+            monitor.warning("Failed to close the federated cache store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the catalog of a participant. A catalog with the same content as the participant's stored catalog only
+     * marks it as not expired: the stored catalog is kept as is, and the generation does not change.
+     * <p>
+     * Each dataset is converted to a JSON tree once, which both the content hash and, if the catalog has changed, the
+     * stored record are computed from.
+     */
+    @Override
+    public void save(Catalog catalog) {
+        var participant = participant(catalog);
+        var datasetTrees = new LinkedHashMap<String, JsonNode>();
+        var datasetProperties = new HashMap<String, Map<String, Object>>();
+        try {
+            if (catalog.getDatasets() != null) {
+                for (var dataset : catalog.getDatasets()) {
+                    datasetTrees.put(dataset.getId(), mapper.valueToTree(dataset));
+                    datasetProperties.put(dataset.getId(), dataset.getProperties());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new EdcPersistenceException(e);
+        }
+        var contentHash = fingerprint.of(catalog, datasetTrees);
+        lock.writeLock().lock();
+        try {
+            if (contentHash != null && contentHash.equals(fingerprints.get(participant)) && entries.containsKey(participant)) {
+                expired.remove(participant);
+                unchangedSaves++;
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            var header = Catalog.Builder.newInstance()
+                    .id(catalog.getId())
+                    .datasets(List.of())
+                    .dataServices(catalog.getDataServices())
+                    .properties(catalog.getProperties())
+                    .build();
+            var serializedHeader = mapper.writeValueAsBytes(header);
+            var datasets = new LinkedHashMap<String, byte[]>();
+            for (var dataset : datasetTrees.entrySet()) {
+                datasets.put(dataset.getKey(), mapper.writeValueAsBytes(dataset.getValue()));
+            }
+
+            lock.writeLock().lock();
+            try {
+                var entry = log.append(participant, serializedHeader, datasets);
+                var previous = entries.put(participant, entry);
+                liveBytes += entry.getSize() - (previous != null ? previous.getSize() : 0);
+                expired.remove(participant);
+                index.put(participant, datasetProperties);
+                if (contentHash != null) {
+                    fingerprints.put(participant, contentHash);
+                } else {
+                    fingerprints.remove(participant);
+                }
+                generation++;
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    @Override
+    public Collection<Catalog> query(List<Criterion> query) {
+        return query(query, null, Integer.MAX_VALUE).getCatalogs();
+    }
+
+    /**
+     * Returns a page of the catalogs matching the criteria, in the order of their participant.
+     *
+     * @param query criteria the catalogs must match.
+     * @param after participant of the last catalog of the previous page, null for the first page.
+     * @param limit maximum number of catalogs of the page.
+     */
+    public CatalogPage query(List<Criterion> query, @Nullable String after, int limit) {
+        Set<String> participants = null;
+        var datasetCriteria = new ArrayList<Criterion>();
+        var catalogPredicates = new ArrayList<Predicate<Catalog>>();
+        for (var criterion : query) {
+            var left = String.valueOf(criterion.getOperandLeft());
+            var participantValues = PARTICIPANT_OPERAND.equals(left) ? CatalogIndex.values(criterion) : null;
+            if (participantValues != null) {
+                participants = intersect(participants, participantValues);
+            } else if (left.startsWith(DATASET_PREFIX)) {
+                datasetCriteria.add(new Criterion(left.substring(DATASET_PREFIX.length()), criterion.getOperator(), criterion.getOperandRight()));
+            } else {
+                catalogPredicates.add(converter.convert(criterion));
+            }
+        }
+        var catalogPredicate = catalogPredicates.stream().reduce(catalog -> true, Predicate::and);
+        var datasetPredicate = datasetCriteria.stream()
+                .map(datasetConverter::<Dataset>convert)
+                .reduce(dataset -> true, Predicate::and);
+
+        var result = new ArrayList<Catalog>();
+        String last = null;
+        lock.readLock().lock();
+        try {
+            // dataset IDs by participant selected by the index, null if no criterion could be served by it
+            Map<String, Set<String>> selected = null;
+            for (var criterion : datasetCriteria) {
+                var matches = index.lookup(criterion);
+                if (matches != null) {
+                    selected = selected == null ? matches : intersect(selected, matches);
+                }
+            }
+            NavigableSet<String> candidates;
+            if (selected != null) {
+                candidates = new TreeSet<>(selected.keySet());
+            } else if (participants != null) {
+                candidates = new TreeSet<>(participants);
+            } else {
+                candidates = entries.navigableKeySet();
+            }
+            if (after != null) {
+                candidates = candidates.tailSet(after, false);
+            }
+            // one catalog beyond the limit is looked up to tell whether there is a next page
+            for (var participant : candidates) {
+                if (result.size() > limit) {
+                    break;
+                }
+                var entry = entries.get(participant);
+                if (entry == null || participants != null && !participants.contains(participant)) {
+                    continue;
+                }
+                var datasetIds = selected != null ? selected.get(participant) : entry.getDatasets().keySet();
+                var catalog = load(entry, datasetIds, datasetPredicate);
+                if (!datasetCriteria.isEmpty() && catalog.getDatasets().isEmpty()) {
+                    continue;
+                }
+                if (catalogPredicate.test(catalog)) {
+                    result.add(catalog);
+                    if (result.size() <= limit) {
+                        last = participant;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (result.size() > limit) {
+            result.remove(limit);
+            return new CatalogPage(result, last);
+        }
+        return new CatalogPage(result, null);
+    }
+
+    /**
+     * Returns the generation of the stored catalogs, which changes whenever a catalog is saved or deleted.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of saved catalogs that were skipped because their content had not changed.
+     */
+    public long getUnchangedSaveCount() {
+        lock.readLock().lock();
+        try {
+            return unchangedSaves;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Page of catalogs, with the cursor of the next page.
+     */
+    static final class CatalogPage {
+        private final List<Catalog> catalogs;
+        @Nullable
+        private final String next;
+
+        CatalogPage(List<Catalog> catalogs, @Nullable String next) {
+            this.catalogs = catalogs;
+            this.next = next;
+        }
+
+        List<Catalog> getCatalogs() {
+            return catalogs;
+        }
+
+        /**
+         * Participant of the last catalog of the page, or null if there are no further catalogs.
+         */
+        @Nullable
+        String getNext() {
+            return next;
+        }
+    }
+
+    @Override
+    @Nullable
+    public String getFingerprint(String participant) {
+        lock.readLock().lock();
+        try {
+            return fingerprints.get(participant);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Un-expires the catalog of the participant if it has been expired, otherwise exempts it from the next
+     * {@link #expireAll()}, so that it is retained whichever of the two the crawler does first.
+     */
+    @Override
+    public void retain(String participant) {
+        lock.writeLock().lock();
+        try {
+            if (entries.containsKey(participant) && !expired.remove(participant)) {
+                retained.add(participant);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteExpired() {
+        lock.writeLock().lock();
+        try {
+            for (var participant : expired) {
+                var entry = entries.remove(participant);
+                if (entry != null) {
+                    log.appendDelete(participant);
+                    index.remove(participant);
+                    fingerprints.remove(participant);
+                    generation++;
+                    liveBytes -= entry.getSize();
+                }
+            }
+            expired.clear();
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void expireAll() {
+        lock.writeLock().lock();
+        try {
+            expired.addAll(entries.keySet());
+            expired.removeAll(retained);
+            retained.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Catalog load(CatalogLog.Entry entry, Set<String> datasetIds, Predicate<Dataset> datasetPredicate) throws IOException {
+        var header = mapper.readValue(log.read(entry.getCatalog()), Catalog.class);
+        var datasets = new ArrayList<Dataset>(datasetIds.size());
+        for (var datasetId : datasetIds) {
+            var location = entry.getDatasets().get(datasetId);
+            if (location != null) {
+                var dataset = mapper.readValue(log.read(location), Dataset.class);
+                if (datasetPredicate.test(dataset)) {
+                    datasets.add(dataset);
+                }
+            }
+        }
+        return Catalog.Builder.newInstance()
+                .id(header.getId())
+                .datasets(datasets)
+                .dataServices(header.getDataServices())
+                .properties(header.getProperties())
+                .build();
+    }
+
+    /**
+     * Rewrites the file once more than half of it is garbage. Must be called with the write lock held.
+     */
+    private void compactIfNeeded() throws IOException {
+        var size = log.size();
+        if (size < compactionThreshold || liveBytes * 2 > size) {
+            return;
+        }
+        var compacted = log.compact(entries);
+        entries.clear();
+        entries.putAll(compacted);
+        liveBytes = log.size();
+        monitor.debug(() -> format("Compacted the federated cache store from %d to %d bytes", size, log.size()));
+    }
+
+    private Map<String, Map<String, Object>> indexedProperties(CatalogLog.Entry entry) throws IOException {
+        var datasets = new HashMap<String, Map<String, Object>>();
+        for (var location : entry.getDatasets().entrySet()) {
+            datasets.put(location.getKey(), index.indexesProperties() ? mapper.readValue(log.read(location.getValue()), Dataset.class).getProperties() : Map.of());
+        }
+        return datasets;
+    }
+
+    private static Set<String> intersect(@Nullable Set<String> a, Set<String> b) {
+        if (a == null) {
+            return b;
+        }
+        var result = new HashSet<>(a);
+        result.retainAll(b);
+        return result;
+    }
+
+    private static Map<String, Set<String>> intersect(Map<String, Set<String>> a, Map<String, Set<String>> b) {
+        var result = new HashMap<String, Set<String>>();
+        a.forEach((participant, datasetIds) -> {
+            var other = b.get(participant);
+            if (other != null) {
+                var common = intersect(datasetIds, other);
+                if (!common.isEmpty()) {
+                    result.put(participant, common);
+                }
+            }
+        });
+        return result;
+    }
+
+    private static String participant(Catalog catalog) {
+        var originator = catalog.getProperties() != null ? catalog.getProperties().get(PROPERTY_ORIGINATOR) : null;
+        return Objects.toString(originator, catalog.getId());
+    }
+}
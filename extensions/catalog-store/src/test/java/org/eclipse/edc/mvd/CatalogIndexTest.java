@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.query.Criterion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogIndexTest {
+
+    private static final String CONTENT_TYPE = "https://w3id.org/edc/v0.0.1/ns/contenttype";
+
+    private final CatalogIndex index = new CatalogIndex(Set.of(CONTENT_TYPE));
+
+    @Test
+    void lookup_byDatasetId() {
+        index.put("company1", Map.of("asset1", Map.of(), "asset2", Map.of()));
+        index.put("company2", Map.of("asset2", Map.of()));
+
+        assertThat(index.lookup(new Criterion("id", "=", "asset2")))
+                .containsOnlyKeys("company1", "company2")
+                .containsEntry("company1", Set.of("asset2"));
+        assertThat(index.lookup(new Criterion("id", "in", List.of("asset1", "asset3")))).isEqualTo(Map.of("company1", Set.of("asset1")));
+    }
+
+    @Test
+    void lookup_byIndexedProperty() {
+        index.put("company1", Map.of("asset1", Map.of(CONTENT_TYPE, "application/json"), "asset2", Map.of(CONTENT_TYPE, "text/plain")));
+
+        assertThat(index.lookup(new Criterion("properties." + CONTENT_TYPE, "=", "application/json"))).isEqualTo(Map.of("company1", Set.of("asset1")));
+    }
+
+    @Test
+    void lookup_notServedByIndex() {
+        assertThat(index.lookup(new Criterion("properties.other", "=", "value"))).isNull();
+        assertThat(index.lookup(new Criterion("id", "like", "asset%"))).isNull();
+    }
+
+    @Test
+    void put_replacesDatasetsOfParticipant() {
+        index.put("company1", Map.of("asset1", Map.of(CONTENT_TYPE, "application/json")));
+
+        index.put("company1", Map.of("asset2", Map.of(CONTENT_TYPE, "text/plain")));
+
+        assertThat(index.lookup(new Criterion("id", "=", "asset1"))).isEmpty();
+        assertThat(index.lookup(new Criterion("properties." + CONTENT_TYPE, "=", "application/json"))).isEmpty();
+        assertThat(index.lookup(new Criterion("properties." + CONTENT_TYPE, "=", "text/plain"))).isEqualTo(Map.of("company1", Set.of("asset2")));
+    }
+
+    @Test
+    void remove_dropsDatasetsOfParticipant() {
+        index.put("company1", Map.of("asset1", Map.of()));
+
+        index.remove("company1");
+
+        assertThat(index.lookup(new Criterion("id", "=", "asset1"))).isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class CatalogLogTest {
+
+    @TempDir
+    Path dir;
+
+    private CatalogLog log;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        log.close();
+    }
+
+    @Test
+    void open_returnsLastEntryOfEachParticipant() throws IOException {
+        log = new CatalogLog(dir.resolve("catalogs.log"));
+        log.open();
+        log.append("company1", bytes("catalog1"), datasets("asset1", "dataset1"));
+        log.append("company2", bytes("catalog2"), datasets("asset2", "dataset2"));
+        log.append("company1", bytes("catalog1b"), datasets("asset3", "dataset3"));
+        log.close();
+
+        log = new CatalogLog(dir.resolve("catalogs.log"));
+        var entries = log.open();
+
+        assertThat(entries).containsOnlyKeys("company1", "company2");
+        assertThat(string(log.read(entries.get("company1").getCatalog()))).isEqualTo("catalog1b");
+        assertThat(entries.get("company1").getDatasets()).containsOnlyKeys("asset3");
+        assertThat(string(log.read(entries.get("company1").getDatasets().get("asset3")))).isEqualTo("dataset3");
+    }
+
+    @Test
+    void open_ignoresDeletedParticipants() throws IOException {
+        log = new CatalogLog(dir.resolve("catalogs.log"));
+        log.open();
+        log.append("company1", bytes("catalog1"), datasets("asset1", "dataset1"));
+        log.appendDelete("company1");
+        log.close();
+
+        log = new CatalogLog(dir.resolve("catalogs.log"));
+
+        assertThat(log.open()).isEmpty();
+    }
+
+    @Test
+    void open_truncatesTornEntry() throws IOException {
+        var path = dir.resolve("catalogs.log");
+        log = new CatalogLog(path);
+        log.open();
+        log.append("company1", bytes("catalog1"), datasets("asset1", "dataset1"));
+        var complete = log.size();
+        log.append("company2", bytes("catalog2"), datasets("asset2", "dataset2"));
+        log.close();
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        log = new CatalogLog(path);
+        var entries = log.open();
+
+        assertThat(entries).containsOnlyKeys("company1");
+        assertThat(log.size()).isEqualTo(complete);
+    }
+
+    @Test
+    void compact_keepsOnlyLiveEntries() throws IOException {
+        var path = dir.resolve("catalogs.log");
+        log = new CatalogLog(path);
+        log.open();
+        log.append("company1", bytes("catalog1"), datasets("asset1", "dataset1"));
+        var entry = log.append("company1", bytes("catalog1b"), datasets("asset1", "dataset1b"));
+        var sizeBefore = log.size();
+
+        var compacted = log.compact(Map.of("company1", entry));
+
+        assertThat(log.size()).isLessThan(sizeBefore).isEqualTo(compacted.get("company1").getSize());
+        assertThat(string(log.read(compacted.get("company1").getDatasets().get("asset1")))).isEqualTo("dataset1b");
+        log.close();
+        log = new CatalogLog(path);
+        assertThat(log.open()).containsOnlyKeys("company1");
+    }
+
+    @Test
+    void compact_failureKeepsLogUsable() throws IOException {
+        var other = new CatalogLog(dir.resolve("other.log"));
+        other.open();
+        other.append("company0", bytes("catalog0"), datasets("asset0", "dataset0"));
+        // lies beyond the end of the compacted log, so reading it fails
+        var unreadable = other.append("company1", bytes("catalog1"), datasets("asset1", "dataset1"));
+        other.close();
+        var path = dir.resolve("catalogs.log");
+        log = new CatalogLog(path);
+        log.open();
+        var entry = log.append("company2", bytes("catalog2"), datasets("asset2", "dataset2"));
+
+        assertThatIOException().isThrownBy(() -> log.compact(Map.of("company1", unreadable)));
+
+        assertThat(dir.resolve("catalogs.log.compact")).doesNotExist();
+        assertThat(string(log.read(entry.getCatalog()))).isEqualTo("catalog2");
+        var appended = log.append("company3", bytes("catalog3"), datasets("asset3", "dataset3"));
+        assertThat(string(log.read(appended.getDatasets().get("asset3")))).isEqualTo("dataset3");
+        assertThat(Files.size(path)).isEqualTo(log.size());
+    }
+
+    private static Map<String, byte[]> datasets(String id, String content) {
+        var datasets = new LinkedHashMap<String, byte[]>();
+        datasets.put(id, bytes(content));
+        return datasets;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
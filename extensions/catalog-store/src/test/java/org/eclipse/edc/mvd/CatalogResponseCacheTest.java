@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.query.Criterion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseCacheTest {
+
+    private static final List<Criterion> CRITERIA = List.of(new Criterion("datasets.id", "=", "asset1"));
+
+    private final CatalogResponseCache.CachedPage page = new CatalogResponseCache.CachedPage(List.of(new byte[]{ '{', '}' }), null);
+
+    @Test
+    void get_returnsPageOfSameGenerationAndQuery() {
+        var cache = new CatalogResponseCache(1024);
+        cache.put(1, CRITERIA, null, 50, page);
+
+        assertThat(cache.get(1, List.of(new Criterion("datasets.id", "=", "asset1")), null, 50)).isSameAs(page);
+        assertThat(cache.get(1, List.of(), null, 50)).isNull();
+        assertThat(cache.get(1, CRITERIA, "company1", 50)).isNull();
+        assertThat(cache.get(1, CRITERIA, null, 10)).isNull();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(3);
+    }
+
+    @Test
+    void get_distinguishesQueriesWithSameText() {
+        var cache = new CatalogResponseCache(1024);
+        cache.put(1, CRITERIA, null, 50, page);
+        cache.put(1, List.of(new Criterion("a b", "=", "c")), null, 50, page);
+
+        assertThat(cache.get(1, CRITERIA, "null", 50)).isNull();
+        assertThat(cache.get(1, List.of(new Criterion("a", "b", "= c")), null, 50)).isNull();
+    }
+
+    @Test
+    void put_newGenerationDropsPreviousPages() {
+        var cache = new CatalogResponseCache(1024);
+        cache.put(1, CRITERIA, null, 50, page);
+
+        cache.put(2, List.of(), null, 50, page);
+
+        assertThat(cache.get(1, CRITERIA, null, 50)).isNull();
+        assertThat(cache.get(2, CRITERIA, null, 50)).isNull();
+        assertThat(cache.get(2, List.of(), null, 50)).isSameAs(page);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedPage() {
+        // two pages of two bytes each
+        var cache = new CatalogResponseCache(4);
+        cache.put(1, CRITERIA, null, 1, page);
+        cache.put(1, CRITERIA, null, 2, page);
+        cache.get(1, CRITERIA, null, 1);
+
+        cache.put(1, CRITERIA, null, 3, page);
+
+        assertThat(cache.get(1, CRITERIA, null, 1)).isSameAs(page);
+        assertThat(cache.get(1, CRITERIA, null, 2)).isNull();
+        assertThat(cache.getSize()).isEqualTo(4);
+    }
+
+    @Test
+    void put_boundsTotalSize() {
+        var cache = new CatalogResponseCache(10);
+        var large = new CatalogResponseCache.CachedPage(List.of(new byte[6], new byte[3]), "next");
+
+        cache.put(1, CRITERIA, null, 1, page);
+        cache.put(1, CRITERIA, null, 2, large);
+
+        assertThat(cache.get(1, CRITERIA, null, 1)).isNull();
+        assertThat(cache.get(1, CRITERIA, null, 2)).isSameAs(large);
+        assertThat(cache.getSize()).isEqualTo(9);
+    }
+
+    @Test
+    void put_skipsPageLargerThanCache() {
+        var cache = new CatalogResponseCache(10);
+        cache.put(1, CRITERIA, null, 1, page);
+
+        cache.put(1, CRITERIA, null, 2, new CatalogResponseCache.CachedPage(List.of(new byte[11]), null));
+
+        assertThat(cache.get(1, CRITERIA, null, 1)).isSameAs(page);
+        assertThat(cache.get(1, CRITERIA, null, 2)).isNull();
+    }
+
+    @Test
+    void put_disabled() {
+        var cache = new CatalogResponseCache(0);
+        cache.put(1, CRITERIA, null, 50, page);
+
+        assertThat(cache.get(1, CRITERIA, null, 50)).isNull();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.eclipse.edc.jsonld.spi.JsonLd;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FederatedCatalogPageApiControllerTest {
+
+    private final PersistentFederatedCacheStore store = mock(PersistentFederatedCacheStore.class);
+    private final TypeTransformerRegistry transformerRegistry = mock(TypeTransformerRegistry.class);
+    private final JsonLd jsonLd = mock(JsonLd.class);
+    private final FederatedCatalogPageApiController controller = new FederatedCatalogPageApiController(store, transformerRegistry, jsonLd,
+            new CatalogResponseCache(1024 * 1024), mock(Monitor.class));
+
+    @BeforeEach
+    void setUp() {
+        when(transformerRegistry.transform(any(Catalog.class), eq(JsonObject.class)))
+                .thenAnswer(invocation -> Result.success(Json.createObjectBuilder().add("@id", invocation.getArgument(0, Catalog.class).getId()).build()));
+        when(jsonLd.compact(any())).thenAnswer(invocation -> Result.success(invocation.getArgument(0)));
+    }
+
+    @Test
+    void streamCatalogs_writesAllPagesAsNdjson() throws IOException {
+        when(store.query(any(), isNull(), anyInt())).thenReturn(new PersistentFederatedCacheStore.CatalogPage(List.of(catalog("catalog1"), catalog("catalog2")), "company2"));
+        when(store.query(any(), eq("company2"), anyInt())).thenReturn(new PersistentFederatedCacheStore.CatalogPage(List.of(catalog("catalog3")), null));
+        var output = new ByteArrayOutputStream();
+
+        controller.streamCatalogs(null, null).write(output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .containsExactly("{\"@id\":\"catalog1\"}", "{\"@id\":\"catalog2\"}", "{\"@id\":\"catalog3\"}");
+    }
+
+    @Test
+    void streamCatalogs_startsAfterCursor() throws IOException {
+        when(store.query(any(), eq("company2"), anyInt())).thenReturn(new PersistentFederatedCacheStore.CatalogPage(List.of(catalog("catalog3")), null));
+        var output = new ByteArrayOutputStream();
+
+        controller.streamCatalogs(null, FederatedCatalogPageApiController.encodeCursor("company2")).write(output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("{\"@id\":\"catalog3\"}\n");
+    }
+
+    @Test
+    void streamCatalogs_servesUnchangedStoreFromResponseCache() throws IOException {
+        when(store.query(any(), isNull(), anyInt())).thenReturn(new PersistentFederatedCacheStore.CatalogPage(List.of(catalog("catalog1")), null));
+
+        controller.streamCatalogs(null, null).write(new ByteArrayOutputStream());
+        controller.streamCatalogs(null, null).write(new ByteArrayOutputStream());
+        when(store.getGeneration()).thenReturn(1L);
+        var output = new ByteArrayOutputStream();
+        controller.streamCatalogs(null, null).write(output);
+
+        verify(store, times(2)).query(any(), isNull(), anyInt());
+        verify(transformerRegistry, times(2)).transform(any(Catalog.class), eq(JsonObject.class));
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("{\"@id\":\"catalog1\"}\n");
+    }
+
+    @Test
+    void getCatalogPage_rejectsInvalidLimit() {
+        assertThatExceptionOfType(InvalidRequestException.class).isThrownBy(() -> controller.getCatalogPage(null, null, 0, null));
+        assertThatExceptionOfType(InvalidRequestException.class).isThrownBy(() -> controller.getCatalogPage(null, null, 1001, null));
+    }
+
+    @Test
+    void decodeCursor() {
+        assertThat(FederatedCatalogPageApiController.decodeCursor(FederatedCatalogPageApiController.encodeCursor("http://company1/api/dsp")))
+                .isEqualTo("http://company1/api/dsp");
+        assertThat(FederatedCatalogPageApiController.decodeCursor(null)).isNull();
+        assertThatExceptionOfType(InvalidRequestException.class).isThrownBy(() -> FederatedCatalogPageApiController.decodeCursor("not base64!"));
+    }
+
+    private static Catalog catalog(String id) {
+        return Catalog.Builder.newInstance().id(id).datasets(List.of()).dataServices(List.of()).build();
+    }
+}
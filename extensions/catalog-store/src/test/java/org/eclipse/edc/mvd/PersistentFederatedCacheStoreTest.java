@@ -0,0 +1,317 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.Catalog;
+import org.eclipse.edc.catalog.spi.Dataset;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.catalog.spi.CatalogConstants.PROPERTY_ORIGINATOR;
+import static org.mockito.Mockito.mock;
+
+class PersistentFederatedCacheStoreTest {
+
+    private static final String CONTENT_TYPE = "https://w3id.org/edc/v0.0.1/ns/contenttype";
+
+    @TempDir
+    Path dir;
+
+    private PersistentFederatedCacheStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = newStore(Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stop();
+    }
+
+    @Test
+    void save_replacesCatalogOfSameParticipant() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.save(catalog("http://company2/api/dsp", "asset2"));
+        store.save(catalog("http://company1/api/dsp", "asset3"));
+
+        assertThat(store.query(List.of()))
+                .extracting(catalog -> catalog.getDatasets().get(0).getId())
+                .containsExactlyInAnyOrder("asset2", "asset3");
+    }
+
+    @Test
+    void save_catalogWithoutDatasets() {
+        store.save(Catalog.Builder.newInstance()
+                .id("http://company1/api/dsp-catalog")
+                .property(PROPERTY_ORIGINATOR, "http://company1/api/dsp")
+                .build());
+
+        assertThat(store.query(List.of())).extracting(Catalog::getId).containsExactly("http://company1/api/dsp-catalog");
+    }
+
+    @Test
+    void query_filtersByCriteria() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.save(catalog("http://company2/api/dsp", "asset2"));
+
+        var result = store.query(List.of(new Criterion("id", "=", "http://company2/api/dsp-catalog")));
+
+        assertThat(result).hasSize(1).first().satisfies(catalog -> {
+            assertThat(catalog.getProperties()).containsEntry(PROPERTY_ORIGINATOR, "http://company2/api/dsp");
+            assertThat(catalog.getDatasets()).extracting(Dataset::getId).containsExactly("asset2");
+        });
+    }
+
+    @Test
+    void query_selectsParticipants() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.save(catalog("http://company2/api/dsp", "asset2"));
+        store.save(catalog("http://company3/api/dsp", "asset3"));
+
+        var result = store.query(List.of(new Criterion("properties." + PROPERTY_ORIGINATOR, "in", List.of("http://company1/api/dsp", "http://company3/api/dsp"))));
+
+        assertThat(result).extracting(Catalog::getId).containsExactlyInAnyOrder("http://company1/api/dsp-catalog", "http://company3/api/dsp-catalog");
+    }
+
+    @Test
+    void query_selectsDatasetsById() {
+        store.save(catalog("http://company1/api/dsp", "asset1", "asset2"));
+        store.save(catalog("http://company2/api/dsp", "asset2", "asset3"));
+
+        var result = store.query(List.of(new Criterion("datasets.id", "=", "asset2")));
+
+        assertThat(result).hasSize(2).allSatisfy(catalog -> assertThat(catalog.getDatasets()).extracting(Dataset::getId).containsExactly("asset2"));
+    }
+
+    @Test
+    void query_combinesIndexedAndNonIndexedCriteria() {
+        store.save(catalog("http://company1/api/dsp", "report-json", "report-txt", "data-json"));
+        store.save(catalog("http://company2/api/dsp", "report-json"));
+
+        var result = store.query(List.of(
+                new Criterion("datasets.properties." + CONTENT_TYPE, "=", "application/json"),
+                new Criterion("datasets.id", "like", "report%"),
+                new Criterion("properties." + PROPERTY_ORIGINATOR, "=", "http://company1/api/dsp")));
+
+        assertThat(result).hasSize(1).first()
+                .satisfies(catalog -> assertThat(catalog.getDatasets()).extracting(Dataset::getId).containsExactly("report-json"));
+    }
+
+    @Test
+    void query_indexIsRebuiltOnStart() {
+        store.save(catalog("http://company1/api/dsp", "asset-json", "asset-txt"));
+        store.stop();
+
+        store = newStore(Long.MAX_VALUE);
+        var result = store.query(List.of(new Criterion("datasets.properties." + CONTENT_TYPE, "=", "text/plain")));
+
+        assertThat(result).hasSize(1).first()
+                .satisfies(catalog -> assertThat(catalog.getDatasets()).extracting(Dataset::getId).containsExactly("asset-txt"));
+    }
+
+    @Test
+    void query_omitsCatalogsWithoutMatchingDataset() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+
+        assertThat(store.query(List.of(new Criterion("datasets.id", "=", "unknown")))).isEmpty();
+    }
+
+    @Test
+    void query_returnsPagesInParticipantOrder() {
+        for (var i = 1; i <= 5; i++) {
+            store.save(catalog("http://company" + i + "/api/dsp", "asset" + i));
+        }
+
+        var first = store.query(List.of(), null, 2);
+        var second = store.query(List.of(), first.getNext(), 2);
+        var last = store.query(List.of(), second.getNext(), 2);
+
+        assertThat(first.getCatalogs()).extracting(Catalog::getId).containsExactly("http://company1/api/dsp-catalog", "http://company2/api/dsp-catalog");
+        assertThat(second.getCatalogs()).extracting(Catalog::getId).containsExactly("http://company3/api/dsp-catalog", "http://company4/api/dsp-catalog");
+        assertThat(last.getCatalogs()).extracting(Catalog::getId).containsExactly("http://company5/api/dsp-catalog");
+        assertThat(last.getNext()).isNull();
+    }
+
+    @Test
+    void query_fullLastPageHasNoCursor() {
+        for (var i = 1; i <= 4; i++) {
+            store.save(catalog("http://company" + i + "/api/dsp", "asset" + i));
+        }
+
+        var first = store.query(List.of(), null, 2);
+        var last = store.query(List.of(), first.getNext(), 2);
+
+        assertThat(first.getNext()).isEqualTo("http://company2/api/dsp");
+        assertThat(last.getCatalogs()).extracting(Catalog::getId).containsExactly("http://company3/api/dsp-catalog", "http://company4/api/dsp-catalog");
+        assertThat(last.getNext()).isNull();
+    }
+
+    @Test
+    void deleteExpired_removesCatalogsNotSavedSinceExpiry() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.save(catalog("http://company2/api/dsp", "asset2"));
+
+        store.expireAll();
+        store.save(catalog("http://company2/api/dsp", "asset2"));
+        store.deleteExpired();
+
+        assertThat(store.query(List.of())).extracting(Catalog::getId).containsExactly("http://company2/api/dsp-catalog");
+    }
+
+    @Test
+    void retain_keepsCatalogExpiredInThisRun() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.save(catalog("http://company2/api/dsp", "asset2"));
+
+        store.expireAll();
+        store.retain("http://company1/api/dsp");
+        store.deleteExpired();
+
+        assertThat(store.query(List.of())).extracting(Catalog::getId).containsExactly("http://company1/api/dsp-catalog");
+    }
+
+    @Test
+    void retain_keepsCatalogThroughNextExpiryOnly() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+
+        store.retain("http://company1/api/dsp");
+        store.expireAll();
+        store.deleteExpired();
+        assertThat(store.query(List.of())).hasSize(1);
+
+        store.expireAll();
+        store.deleteExpired();
+        assertThat(store.query(List.of())).isEmpty();
+    }
+
+    @Test
+    void getFingerprint_ofSavedCatalog() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        var fingerprint = store.getFingerprint("http://company1/api/dsp");
+
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        assertThat(store.getFingerprint("http://company1/api/dsp")).isNotNull().isEqualTo(fingerprint);
+        store.save(catalog("http://company1/api/dsp", "asset1", "asset2"));
+        assertThat(store.getFingerprint("http://company1/api/dsp")).isNotEqualTo(fingerprint);
+        assertThat(store.getFingerprint("http://company2/api/dsp")).isNull();
+    }
+
+    @Test
+    void getGeneration_changesWhenCatalogsChange() {
+        var initial = store.getGeneration();
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        var saved = store.getGeneration();
+
+        store.expireAll();
+        assertThat(store.getGeneration()).isEqualTo(saved);
+        store.deleteExpired();
+
+        assertThat(saved).isNotEqualTo(initial);
+        assertThat(store.getGeneration()).isNotEqualTo(saved);
+    }
+
+    @Test
+    void save_skipsUnchangedCatalog() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        var generation = store.getGeneration();
+        var size = dir.resolve("catalogs.log").toFile().length();
+
+        store.expireAll();
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.deleteExpired();
+
+        assertThat(store.getUnchangedSaveCount()).isEqualTo(1);
+        assertThat(store.getGeneration()).isEqualTo(generation);
+        assertThat(dir.resolve("catalogs.log").toFile().length()).isEqualTo(size);
+        assertThat(store.query(List.of())).extracting(Catalog::getId).containsExactly("http://company1/api/dsp-catalog");
+    }
+
+    @Test
+    void save_storesChangedCatalog() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        var generation = store.getGeneration();
+
+        store.save(catalog("http://company1/api/dsp", "asset1", "asset2"));
+
+        assertThat(store.getUnchangedSaveCount()).isZero();
+        assertThat(store.getGeneration()).isNotEqualTo(generation);
+        assertThat(store.query(List.of())).first().satisfies(catalog -> assertThat(catalog.getDatasets()).hasSize(2));
+    }
+
+    @Test
+    void start_loadsCatalogsSavedBeforeRestart() {
+        store.save(catalog("http://company1/api/dsp", "asset1"));
+        store.stop();
+
+        store = newStore(Long.MAX_VALUE);
+
+        assertThat(store.query(List.of())).extracting(Catalog::getId).containsExactly("http://company1/api/dsp-catalog");
+    }
+
+    @Test
+    void save_compactsGarbage() {
+        store.stop();
+        store = newStore(0);
+        var file = dir.resolve("catalogs.log").toFile();
+        store.save(catalog("http://company1/api/dsp", "asset0"));
+        var entrySize = file.length();
+        for (var i = 1; i < 10; i++) {
+            store.save(catalog("http://company1/api/dsp", "asset" + i));
+        }
+        store.stop();
+
+        store = newStore(Long.MAX_VALUE);
+
+        assertThat(file.length()).isEqualTo(entrySize);
+        assertThat(store.query(List.of())).extracting(catalog -> catalog.getDatasets().get(0).getId()).containsExactly("asset9");
+    }
+
+    private PersistentFederatedCacheStore newStore(long compactionThreshold) {
+        var mapper = new TypeManager().getMapper();
+        var newStore = new PersistentFederatedCacheStore(new CatalogLog(dir.resolve("catalogs.log")), mapper,
+                new CatalogPredicateConverter(), new DatasetPredicateConverter(), new CatalogIndex(Set.of(CONTENT_TYPE)), new CatalogFingerprint(mapper), compactionThreshold, mock(Monitor.class));
+        newStore.start();
+        return newStore;
+    }
+
+    private static Catalog catalog(String originator, String... assetIds) {
+        var datasets = Arrays.stream(assetIds)
+                .map(assetId -> Dataset.Builder.newInstance()
+                        .id(assetId)
+                        .offer(assetId + ":offer", Policy.Builder.newInstance().build())
+                        .property(CONTENT_TYPE, assetId.endsWith("json") ? "application/json" : "text/plain")
+                        .build())
+                .toList();
+        return Catalog.Builder.newInstance()
+                .id(originator + "-catalog")
+                .datasets(datasets)
+                .dataServices(List.of())
+                .property(PROPERTY_ORIGINATOR, originator)
+                .build();
+    }
+}
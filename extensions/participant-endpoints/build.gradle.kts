@@ -0,0 +1,28 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+plugins {
+    `java-library`
+}
+
+dependencies {
+    api(libs.rs.spi.core)
+
+    implementation(libs.edc.ext.identity.did.core)
+    implementation(libs.edc.spi.web)
+
+    testImplementation(libs.edc.core.junit)
+    // JAX-RS runtime building the controller responses
+    testImplementation(libs.edc.core.jersey)
+}
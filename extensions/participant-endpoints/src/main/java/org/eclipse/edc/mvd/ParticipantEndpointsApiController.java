@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Arrays;
+
+/**
+ * Registration Service endpoint returning all participants together with their DSP endpoints in a single response.
+ * Clients send the entity tag of the list they already have in {@code If-None-Match} and receive {@code 304 Not
+ * Modified} if it is still current.
+ */
+@Produces(MediaType.APPLICATION_JSON)
+@Path("/registry/participant-endpoints")
+public class ParticipantEndpointsApiController {
+
+    private final ParticipantEndpointsService service;
+
+    ParticipantEndpointsApiController(ParticipantEndpointsService service) {
+        this.service = service;
+    }
+
+    @GET
+    public Response listParticipantEndpoints(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        var snapshot = service.getSnapshot();
+        var entityTag = new EntityTag(snapshot.getEntityTag());
+        if (matches(ifNoneMatch, snapshot.getEntityTag())) {
+            return Response.notModified(entityTag).build();
+        }
+        return Response.ok(snapshot.getEntries()).tag(entityTag).build();
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the entity tag, using the weak comparison of RFC 9110.
+     */
+    static boolean matches(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        var quoted = "\"" + entityTag + "\"";
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(quoted));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A participant together with the DSP endpoints published in its Did Document.
+ */
+public class ParticipantEndpointsDto {
+
+    private final String did;
+    private final List<String> endpoints;
+
+    @JsonCreator
+    public ParticipantEndpointsDto(@JsonProperty("did") String did,
+                                   @JsonProperty("endpoints") List<String> endpoints) {
+        this.did = did;
+        this.endpoints = endpoints;
+    }
+
+    public String getDid() {
+        return did;
+    }
+
+    public List<String> getEndpoints() {
+        return endpoints;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.registration.store.spi.ParticipantStore;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Extension exposing the participants and their DSP endpoints on the authority API of the Registration Service.
+ */
+public class ParticipantEndpointsExtension implements ServiceExtension {
+
+    /**
+     * Context of the Registration Service API, whose authentication filter also protects this endpoint.
+     */
+    private static final String AUTHORITY_CONTEXT_ALIAS = "authority";
+
+    @Setting(value = "Time in seconds the participant endpoints list is served before the Did Documents are resolved again.", type = "long")
+    private static final String PARTICIPANT_ENDPOINTS_TTL_SECONDS = "participant.endpoints.ttl.seconds";
+    private static final long DEFAULT_PARTICIPANT_ENDPOINTS_TTL_SECONDS = 60;
+
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private ParticipantStore participantStore;
+
+    @Inject
+    private DidResolverRegistry didResolverRegistry;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private Monitor monitor;
+
+    @Override
+    public String name() {
+        return "Participant endpoints API";
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var ttl = Duration.ofSeconds(context.getSetting(PARTICIPANT_ENDPOINTS_TTL_SECONDS, DEFAULT_PARTICIPANT_ENDPOINTS_TTL_SECONDS));
+        var service = new ParticipantEndpointsService(participantStore, didResolverRegistry, ttl, clock, monitor);
+        webService.registerResource(AUTHORITY_CONTEXT_ALIAS, new ParticipantEndpointsApiController(service));
+    }
+}
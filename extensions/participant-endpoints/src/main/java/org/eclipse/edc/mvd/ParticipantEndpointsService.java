@@ -0,0 +1,197 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.registration.spi.model.Participant;
+import org.eclipse.edc.registration.store.spi.ParticipantStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Lists the registered participants together with the DSP endpoints of their Did Documents, so that connectors can
+ * build their node directory without resolving every Did Document themselves. Like the participant list of the
+ * Registration Service API, it includes every participant regardless of its onboarding status.
+ * <p>
+ * The list is rebuilt at most once per {@code ttl}. If a Did Document cannot be resolved, the endpoints it had the last
+ * time it was resolved are kept. Every list carries an entity tag derived from its content, which only changes when a
+ * participant or one of its endpoints changes.
+ */
+class ParticipantEndpointsService {
+
+    static final String DSP_MESSAGING = "DSPMessaging";
+
+    private final ParticipantStore participantStore;
+    private final DidResolverRegistry didResolverRegistry;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final Object refreshLock = new Object();
+    // only accessed by the running rebuild
+    private Map<String, List<String>> endpointsByDid = Map.of();
+    private volatile CachedSnapshot cached;
+    // rebuild currently running, joined by concurrent callers that have no snapshot to fall back on
+    private CompletableFuture<Snapshot> inFlight;
+
+    /**
+     * Constructs {@link ParticipantEndpointsService}
+     *
+     * @param participantStore    store of the registered participants.
+     * @param didResolverRegistry resolves the participants' Did Documents.
+     * @param ttl                 time after which the list is rebuilt.
+     * @param clock               clock
+     * @param monitor             monitor
+     */
+    ParticipantEndpointsService(ParticipantStore participantStore, DidResolverRegistry didResolverRegistry, Duration ttl, Clock clock, Monitor monitor) {
+        this.participantStore = participantStore;
+        this.didResolverRegistry = didResolverRegistry;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the current list, rebuilding it first if it has expired. Only one rebuild runs at a time, and it runs
+     * without holding a lock: while it resolves the Did Documents, concurrent callers receive the expired list, or wait
+     * for the rebuild if there is no list yet.
+     */
+    public Snapshot getSnapshot() {
+        var current = cached;
+        var now = clock.instant();
+        if (current != null && now.isBefore(current.expiresAt)) {
+            return current.snapshot;
+        }
+        var rebuild = new CompletableFuture<Snapshot>();
+        CompletableFuture<Snapshot> running;
+        synchronized (refreshLock) {
+            current = cached;
+            if (current != null && now.isBefore(current.expiresAt)) {
+                // rebuilt by another caller in the meantime
+                return current.snapshot;
+            }
+            running = inFlight;
+            if (running == null) {
+                inFlight = rebuild;
+            }
+        }
+        if (running != null) {
+            return current != null ? current.snapshot : running.join();
+        }
+        try {
+            var snapshot = build();
+            cached = new CachedSnapshot(snapshot, now.plus(ttl));
+            rebuild.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            rebuild.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (refreshLock) {
+                inFlight = null;
+            }
+        }
+    }
+
+    private Snapshot build() {
+        var resolved = new HashMap<String, List<String>>();
+        var entries = participantStore.listParticipants().stream()
+                .map(Participant::getDid)
+                .map(did -> {
+                    var endpoints = resolveEndpoints(did);
+                    resolved.put(did, endpoints);
+                    return new ParticipantEndpointsDto(did, endpoints);
+                })
+                .collect(Collectors.toList());
+        // forgets the endpoints of participants that are no longer registered
+        endpointsByDid = resolved;
+        return new Snapshot(entries, entityTag(entries));
+    }
+
+    private List<String> resolveEndpoints(String did) {
+        var didDocument = didResolverRegistry.resolve(did);
+        if (didDocument.failed()) {
+            monitor.warning(format("Failed to resolve Did Document for %s, keeping its previous endpoints: %s", did, didDocument.getFailureDetail()));
+            return endpointsByDid.getOrDefault(did, List.of());
+        }
+        return didDocument.getContent().getService().stream()
+                .filter(service -> DSP_MESSAGING.equals(service.getType()))
+                .map(Service::getServiceEndpoint)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static String entityTag(List<ParticipantEndpointsDto> entries) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var entry : entries) {
+                digest.update(entry.getDid().getBytes(StandardCharsets.UTF_8));
+                for (var endpoint : entry.getEndpoints()) {
+                    digest.update((byte) 0);
+                    digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedSnapshot {
+        private final Snapshot snapshot;
+        private final Instant expiresAt;
+
+        private CachedSnapshot(Snapshot snapshot, Instant expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Participant endpoints list and its entity tag.
+     */
+    static final class Snapshot {
+        private final List<ParticipantEndpointsDto> entries;
+        private final String entityTag;
+
+        Snapshot(List<ParticipantEndpointsDto> entries, String entityTag) {
+            this.entries = entries;
+            this.entityTag = entityTag;
+        }
+
+        public List<ParticipantEndpointsDto> getEntries() {
+            return entries;
+        }
+
+        public String getEntityTag() {
+            return entityTag;
+        }
+    }
+}
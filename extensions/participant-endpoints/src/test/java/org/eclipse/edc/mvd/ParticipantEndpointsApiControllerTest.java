@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.core.EntityTag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParticipantEndpointsApiControllerTest {
+
+    private static final String ENTITY_TAG = "abc";
+
+    private final ParticipantEndpointsService service = mock(ParticipantEndpointsService.class);
+    private final ParticipantEndpointsApiController controller = new ParticipantEndpointsApiController(service);
+
+    @Test
+    void listParticipantEndpoints_returnsListWithEntityTag() {
+        var entries = List.of(new ParticipantEndpointsDto("did:web:company1", List.of("http://company1/api/dsp")));
+        when(service.getSnapshot()).thenReturn(new ParticipantEndpointsService.Snapshot(entries, ENTITY_TAG));
+
+        var response = controller.listParticipantEndpoints(null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getEntityTag()).isEqualTo(new EntityTag(ENTITY_TAG));
+        assertThat(response.getEntity()).isEqualTo(entries);
+    }
+
+    @Test
+    void listParticipantEndpoints_notModified() {
+        when(service.getSnapshot()).thenReturn(new ParticipantEndpointsService.Snapshot(List.of(), ENTITY_TAG));
+
+        var response = controller.listParticipantEndpoints("\"abc\"");
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getEntityTag()).isEqualTo(new EntityTag(ENTITY_TAG));
+        assertThat(response.hasEntity()).isFalse();
+    }
+
+    @Test
+    void matches_noHeader() {
+        assertThat(ParticipantEndpointsApiController.matches(null, ENTITY_TAG)).isFalse();
+    }
+
+    @Test
+    void matches_sameTag() {
+        assertThat(ParticipantEndpointsApiController.matches("\"abc\"", ENTITY_TAG)).isTrue();
+        assertThat(ParticipantEndpointsApiController.matches("\"xyz\", W/\"abc\"", ENTITY_TAG)).isTrue();
+        assertThat(ParticipantEndpointsApiController.matches("*", ENTITY_TAG)).isTrue();
+    }
+
+    @Test
+    void matches_otherTag() {
+        assertThat(ParticipantEndpointsApiController.matches("\"xyz\"", ENTITY_TAG)).isFalse();
+        assertThat(ParticipantEndpointsApiController.matches("abc", ENTITY_TAG)).isFalse();
+    }
+}
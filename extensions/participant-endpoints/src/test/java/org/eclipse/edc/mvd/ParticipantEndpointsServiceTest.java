@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.registration.spi.model.Participant;
+import org.eclipse.edc.registration.store.spi.ParticipantStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticipantEndpointsServiceTest {
+
+    private static final String DID_1 = "did:web:company1";
+    private static final String DID_2 = "did:web:company2";
+    private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final ParticipantStore participantStore = mock(ParticipantStore.class);
+    private final DidResolverRegistry didResolverRegistry = mock(DidResolverRegistry.class);
+    private final Clock clock = mock(Clock.class);
+    private final ParticipantEndpointsService service = new ParticipantEndpointsService(participantStore, didResolverRegistry, TTL, clock, mock(Monitor.class));
+
+    @Test
+    void getSnapshot_listsDspEndpoints() {
+        when(clock.instant()).thenReturn(NOW);
+        participants(DID_1, DID_2);
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(didDocument(DID_1, "http://eu.company1/api/dsp", "http://us.company1/api/dsp"));
+        when(didResolverRegistry.resolve(DID_2)).thenReturn(Result.success(DidDocument.Builder.newInstance().id(DID_2)
+                .service(List.of(new Service("identity-hub", "IdentityHub", "http://company2/api/identity-hub"))).build()));
+
+        var snapshot = service.getSnapshot();
+
+        assertThat(snapshot.getEntries()).hasSize(2);
+        assertThat(snapshot.getEntries().get(0).getDid()).isEqualTo(DID_1);
+        assertThat(snapshot.getEntries().get(0).getEndpoints()).containsExactly("http://eu.company1/api/dsp", "http://us.company1/api/dsp");
+        assertThat(snapshot.getEntries().get(1).getEndpoints()).isEmpty();
+        assertThat(snapshot.getEntityTag()).isNotBlank();
+    }
+
+    @Test
+    void getSnapshot_cachedUntilExpired() {
+        when(clock.instant()).thenReturn(NOW);
+        participants(DID_1);
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(didDocument(DID_1, "http://company1/api/dsp"));
+
+        var first = service.getSnapshot();
+        assertThat(service.getSnapshot()).isSameAs(first);
+        verify(didResolverRegistry, times(1)).resolve(DID_1);
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        var rebuilt = service.getSnapshot();
+
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(rebuilt.getEntityTag()).isEqualTo(first.getEntityTag());
+    }
+
+    @Test
+    void getSnapshot_entityTagChangesWithEndpoints() {
+        when(clock.instant()).thenReturn(NOW);
+        participants(DID_1);
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(didDocument(DID_1, "http://company1/api/dsp"));
+        var first = service.getSnapshot();
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(didDocument(DID_1, "http://company1:8282/api/dsp"));
+
+        assertThat(service.getSnapshot().getEntityTag()).isNotEqualTo(first.getEntityTag());
+    }
+
+    @Test
+    void getSnapshot_keepsPreviousEndpointsOnResolutionFailure() {
+        when(clock.instant()).thenReturn(NOW);
+        participants(DID_1);
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(didDocument(DID_1, "http://company1/api/dsp"));
+        var first = service.getSnapshot();
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(Result.failure("did-server unavailable"));
+        var second = service.getSnapshot();
+
+        assertThat(second.getEntries().get(0).getEndpoints()).containsExactly("http://company1/api/dsp");
+        assertThat(second.getEntityTag()).isEqualTo(first.getEntityTag());
+    }
+
+    @Test
+    void getSnapshot_servesExpiredListWhileRebuilding() throws Exception {
+        when(clock.instant()).thenReturn(NOW);
+        participants(DID_1);
+        when(didResolverRegistry.resolve(DID_1)).thenReturn(didDocument(DID_1, "http://company1/api/dsp"));
+        var first = service.getSnapshot();
+
+        var resolving = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        when(didResolverRegistry.resolve(DID_1)).thenAnswer(invocation -> {
+            resolving.countDown();
+            release.await();
+            return didDocument(DID_1, "http://company1:8282/api/dsp");
+        });
+        var rebuild = CompletableFuture.supplyAsync(service::getSnapshot);
+        assertThat(resolving.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.getSnapshot()).isSameAs(first);
+
+        release.countDown();
+        assertThat(rebuild.get(5, TimeUnit.SECONDS).getEntityTag()).isNotEqualTo(first.getEntityTag());
+        verify(didResolverRegistry, times(2)).resolve(DID_1);
+    }
+
+    private void participants(String... dids) {
+        var participants = new ArrayList<Participant>();
+        for (var did : dids) {
+            var participant = mock(Participant.class);
+            when(participant.getDid()).thenReturn(did);
+            participants.add(participant);
+        }
+        when(participantStore.listParticipants()).thenReturn(participants);
+    }
+
+    private static Result<DidDocument> didDocument(String did, String... dspEndpoints) {
+        var services = new ArrayList<Service>();
+        for (var endpoint : dspEndpoints) {
+            services.add(new Service("dsp-" + services.size(), "DSPMessaging", endpoint));
+        }
+        return Result.success(DidDocument.Builder.newInstance().id(did).service(services).build());
+    }
+}
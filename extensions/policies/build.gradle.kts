@@ -17,10 +17,15 @@ plugins {
 }
 
 dependencies {
+    api(libs.edc.spi.core)
     api(libs.edc.spi.contract)
+    api(libs.edc.spi.policy)
     api(libs.edc.spi.policy.engine)
 //    api(edc.core.connector)
     implementation(libs.ih.spi.core)
 
     testImplementation(libs.edc.core.policy.engine)
+    testImplementation(libs.edc.core.junit)
+    testImplementation(libs.edc.core.controlplane)
+    testRuntimeOnly(libs.edc.core.connector)
 }
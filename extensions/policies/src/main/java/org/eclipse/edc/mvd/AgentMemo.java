@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Values a constraint function derives from the claims of the participant agent, memoized for a single catalog request.
+ * <p>
+ * {@link DeduplicatingContractDefinitionResolver} passes one instance as context data to the evaluation of every access
+ * policy of a request, so that the claims are read once per request rather than once per policy, and nothing is kept
+ * once the request completes. Safe to use from several threads; reads do not lock.
+ */
+final class AgentMemo {
+
+    private final Map<Object, Object> values = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value the function derives from the agent of the context, memoized by {@code key} if the context
+     * carries an {@link AgentMemo}, and computed on every call otherwise.
+     *
+     * @param context  the policy context holding the agent.
+     * @param key      identifies the value within the request, e.g. the constraint function computing it.
+     * @param function derives the value from the agent.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T get(PolicyContext context, Object key, Function<ParticipantAgent, T> function) {
+        var agent = context.getParticipantAgent();
+        var memo = context.getContextData(AgentMemo.class);
+        if (memo == null) {
+            return function.apply(agent);
+        }
+        var value = memo.values.get(key);
+        return value != null ? (T) value : (T) memo.values.computeIfAbsent(key, k -> function.apply(agent));
+    }
+
+    /**
+     * Returns the context information carrying a new memo, to be passed to the policy engine for every evaluation of
+     * a request.
+     */
+    @SuppressWarnings("rawtypes")
+    static Map<Class, Object> newContextInformation() {
+        return Map.of(AgentMemo.class, new AgentMemo());
+    }
+}
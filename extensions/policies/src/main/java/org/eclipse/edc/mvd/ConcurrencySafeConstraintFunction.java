@@ -0,0 +1,27 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
+import org.eclipse.edc.policy.model.Rule;
+
+/**
+ * Marks a constraint function that may be evaluated by several threads at the same time, e.g. because it is stateless
+ * or only holds thread-safe memoization. The access policies of the cataloging scope are only evaluated in parallel if
+ * every function {@link SeedPoliciesExtension} registers for the scope is declared safe. Functions registered by other
+ * extensions cannot be checked, so enabling parallel evaluation requires them to be thread-safe as well.
+ */
+public interface ConcurrencySafeConstraintFunction<R extends Rule> extends AtomicConstraintFunction<R> {
+}
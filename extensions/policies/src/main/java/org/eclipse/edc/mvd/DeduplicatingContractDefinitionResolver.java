@@ -0,0 +1,226 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionResolver;
+import org.eclipse.edc.connector.contract.spi.offer.store.ContractDefinitionStore;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractDefinition;
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.policy.engine.spi.PolicyEngine;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * Resolves the contract definitions a participant agent has access to, evaluating each distinct access policy only
+ * once per request.
+ * <p>
+ * Many contract definitions usually share a few access policies. Within a call of
+ * {@link #definitionsFor(ParticipantAgent)} the decision is memoized by policy ID and by the structure of the policy,
+ * i.e. its canonical JSON, so that policies stored under different IDs with the same content are evaluated once too.
+ * The decision is then applied to every definition referencing the policy.
+ * <p>
+ * If a {@link PolicyDecisionCache} is set, decisions are also shared across requests of agents with the same identity
+ * presenting the same credential subjects, so that recurring catalog requests of the same consumer mostly skip the
+ * policy engine.
+ * <p>
+ * If an evaluation pool is set, requests referencing at least {@code parallelThreshold} distinct access policies
+ * evaluate them concurrently on the pool before the definitions are filtered, so that the response time of large
+ * providers scales with the available cores. Smaller requests are evaluated lazily on the calling thread.
+ */
+class DeduplicatingContractDefinitionResolver implements ContractDefinitionResolver {
+
+    private final ContractDefinitionStore definitionStore;
+    private final PolicyDefinitionStore policyStore;
+    private final PolicyEngine policyEngine;
+    private final ObjectMapper mapper;
+    @Nullable
+    private final PolicyDecisionCache decisionCache;
+    private final Monitor monitor;
+    @Nullable
+    private final ForkJoinPool evaluationPool;
+    private final int parallelThreshold;
+
+    /**
+     * Constructs {@link DeduplicatingContractDefinitionResolver}
+     *
+     * @param definitionStore   store of the contract definitions.
+     * @param policyStore       store of the access policies.
+     * @param policyEngine      evaluates the access policies in the cataloging scope.
+     * @param mapper            serializes the policies to compare their structure.
+     * @param decisionCache     caches decisions across requests, null to evaluate the policies on every request.
+     * @param monitor           monitor
+     * @param evaluationPool    pool evaluating the policies of large requests in parallel, null to always evaluate
+     *                          them on the calling thread.
+     * @param parallelThreshold minimum number of distinct access policies of a request evaluated in parallel.
+     */
+    DeduplicatingContractDefinitionResolver(ContractDefinitionStore definitionStore, PolicyDefinitionStore policyStore, PolicyEngine policyEngine,
+                                            ObjectMapper mapper, @Nullable PolicyDecisionCache decisionCache, Monitor monitor,
+                                            @Nullable ForkJoinPool evaluationPool, int parallelThreshold) {
+        this.definitionStore = definitionStore;
+        this.policyStore = policyStore;
+        this.policyEngine = policyEngine;
+        this.mapper = mapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.decisionCache = decisionCache;
+        this.monitor = monitor;
+        this.evaluationPool = evaluationPool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public Stream<ContractDefinition> definitionsFor(ParticipantAgent agent) {
+        var decisions = new Decisions(agent);
+        if (evaluationPool == null) {
+            return definitionStore.findAll(QuerySpec.max())
+                    .filter(definition -> decisions.hasAccess(definition.getAccessPolicyId()));
+        }
+        var definitions = definitionStore.findAll(QuerySpec.max()).collect(Collectors.toList());
+        var policyIds = new LinkedHashSet<String>();
+        definitions.forEach(definition -> policyIds.add(definition.getAccessPolicyId()));
+        if (policyIds.size() >= parallelThreshold) {
+            evaluateInParallel(policyIds, decisions);
+        }
+        return definitions.stream()
+                .filter(definition -> decisions.hasAccess(definition.getAccessPolicyId()));
+    }
+
+    @Override
+    @Nullable
+    public ContractDefinition definitionFor(ParticipantAgent agent, String definitionId) {
+        var definition = definitionStore.findById(definitionId);
+        return definition != null && new Decisions(agent).hasAccess(definition.getAccessPolicyId()) ? definition : null;
+    }
+
+    private void evaluateInParallel(Iterable<String> policyIds, Decisions decisions) {
+        var tasks = new ArrayList<ForkJoinTask<Boolean>>();
+        for (var policyId : policyIds) {
+            tasks.add(evaluationPool.submit(() -> decisions.hasAccess(policyId)));
+        }
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    /**
+     * Access decisions of a single request. Safe to use from several threads, a policy evaluated concurrently by two
+     * threads is still evaluated once: the decisions are memoized as futures that are completed outside the maps, so
+     * that no evaluation runs while a map is locked and only threads needing the same decision wait for each other.
+     */
+    private class Decisions {
+        private final ParticipantAgent agent;
+        @SuppressWarnings("rawtypes")
+        private final Map<Class, Object> contextInformation = AgentMemo.newContextInformation();
+        private final Map<String, CompletableFuture<Boolean>> byPolicyId = new ConcurrentHashMap<>();
+        private final Map<String, CompletableFuture<Boolean>> byStructure = new ConcurrentHashMap<>();
+        @Nullable
+        private final String agentFingerprint;
+
+        private Decisions(ParticipantAgent agent) {
+            this.agent = agent;
+            this.agentFingerprint = decisionCache != null ? decisionCache.fingerprint(agent) : null;
+        }
+
+        boolean hasAccess(String policyId) {
+            if (policyId == null) {
+                return false;
+            }
+            return memoized(byPolicyId, policyId, () -> evaluate(policyId));
+        }
+
+        private boolean evaluate(String policyId) {
+            var policyDefinition = policyStore.findById(policyId);
+            if (policyDefinition == null) {
+                monitor.debug(format("Access policy %s not found", policyId));
+                return false;
+            }
+            var policy = policyDefinition.getPolicy();
+            var structure = structure(policy);
+            if (structure == null) {
+                return evaluate(policyId, policy);
+            }
+            return memoized(byStructure, structure, () -> evaluateCached(policyId, policy, structure));
+        }
+
+        private boolean evaluateCached(String policyId, Policy policy, String structure) {
+            if (agentFingerprint == null) {
+                return evaluate(policyId, policy);
+            }
+            var key = decisionCache.key(structure, agentFingerprint);
+            var cached = decisionCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            var granted = evaluate(policyId, policy);
+            decisionCache.put(key, granted);
+            return granted;
+        }
+
+        private boolean evaluate(String policyId, Policy policy) {
+            var result = policyEngine.evaluate(CATALOGING_SCOPE, policy, agent, contextInformation);
+            if (result.failed()) {
+                monitor.debug(format("Access not granted by policy %s: %s", policyId, result.getFailureDetail()));
+            }
+            return result.succeeded();
+        }
+    }
+
+    /**
+     * Returns the decision memoized under the key, evaluating it on the calling thread if no other thread has started
+     * to. A failed evaluation is not memoized.
+     */
+    private static boolean memoized(Map<String, CompletableFuture<Boolean>> decisions, String key, BooleanSupplier evaluation) {
+        var decision = decisions.get(key);
+        if (decision == null) {
+            var evaluating = new CompletableFuture<Boolean>();
+            decision = decisions.putIfAbsent(key, evaluating);
+            if (decision == null) {
+                try {
+                    evaluating.complete(evaluation.getAsBoolean());
+                } catch (RuntimeException e) {
+                    decisions.remove(key, evaluating);
+                    evaluating.completeExceptionally(e);
+                    throw e;
+                }
+                decision = evaluating;
+            }
+        }
+        return decision.join();
+    }
+
+    @Nullable
+    private String structure(Policy policy) {
+        try {
+            return mapper.writeValueAsString(policy);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Caches access decisions of the cataloging scope across requests, keyed by the structure of the policy and a
+ * fingerprint of the attributes of the agent, including its identity, and of the subjects of all its credentials. Only
+ * agents with the same identity presenting the same credential subjects share decisions, whatever the functions of the
+ * scope read from them, while claims of the token itself that change with every request, like the issue time or token
+ * ID, do not prevent a decision from being reused. Decisions expire after a fixed time, and all decisions are dropped whenever an
+ * event it is subscribed to is published, e.g. a policy definition change.
+ * <p>
+ * As every decision is cached for the same time, the order decisions are put in is also the order they expire in. Once
+ * the cache is full, the decisions put first are evicted, and expired decisions are evicted before any other.
+ */
+class PolicyDecisionCache implements EventSubscriber {
+
+    private final ObjectMapper mapper;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+    // decisions in the order they were put, i.e. in expiry order; may still hold decisions replaced or removed since
+    private final Queue<Decision> expiryOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs {@link PolicyDecisionCache}
+     *
+     * @param mapper     serializes the attributes and credential subjects of an agent to fingerprint them.
+     * @param ttl        time a decision is cached.
+     * @param maxEntries maximum number of cached decisions.
+     * @param clock      clock
+     */
+    PolicyDecisionCache(ObjectMapper mapper, Duration ttl, int maxEntries, Clock clock) {
+        this.mapper = mapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the fingerprint of the attributes of the agent and the subjects of its credentials, regardless of the
+     * order of the credentials, or null if they cannot be serialized, in which case decisions for the agent must not be
+     * cached.
+     */
+    @Nullable
+    public String fingerprint(ParticipantAgent agent) {
+        try {
+            var subjects = new TreeSet<String>();
+            for (var claim : agent.getClaims().values()) {
+                if (claim instanceof Credential) {
+                    var credentialSubject = ((Credential) claim).getCredentialSubject();
+                    // a HashMap, as the subject ID may be null
+                    var subject = new HashMap<String, Object>();
+                    subject.put("id", credentialSubject.getId());
+                    subject.put("claims", credentialSubject.getClaims());
+                    subjects.add(mapper.writeValueAsString(subject));
+                }
+            }
+            return sha256(mapper.writeValueAsString(Map.of("attributes", new TreeMap<>(agent.getAttributes()), "subjects", subjects)));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the key of the decision of a policy for an agent.
+     *
+     * @param policyStructure  canonical serialization of the policy.
+     * @param agentFingerprint fingerprint of the agent the policy is evaluated for.
+     */
+    public String key(String policyStructure, String agentFingerprint) {
+        return sha256(policyStructure) + "|" + agentFingerprint;
+    }
+
+    /**
+     * Returns the cached decision, or null if there is none or it has expired.
+     */
+    @Nullable
+    public Boolean get(String key) {
+        var decision = decisions.get(key);
+        if (decision == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(decision.expiresAt)) {
+            decisions.remove(key, decision);
+            return null;
+        }
+        return decision.granted;
+    }
+
+    public void put(String key, boolean granted) {
+        var now = clock.instant();
+        var decision = new Decision(key, granted, now.plus(ttl));
+        decisions.put(key, decision);
+        expiryOrder.add(decision);
+        evict(now);
+    }
+
+    public void invalidateAll() {
+        decisions.clear();
+        expiryOrder.clear();
+    }
+
+    public int size() {
+        return decisions.size();
+    }
+
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> event) {
+        invalidateAll();
+    }
+
+    private void evict(Instant now) {
+        Decision eldest;
+        while ((eldest = expiryOrder.peek()) != null && (!now.isBefore(eldest.expiresAt) || decisions.size() > maxEntries)) {
+            if (expiryOrder.remove(eldest)) {
+                decisions.remove(eldest.key, eldest);
+            }
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Decision {
+        private final String key;
+        private final boolean granted;
+        private final Instant expiresAt;
+
+        private Decision(String key, boolean granted, Instant expiresAt) {
+            this.key = key;
+            this.granted = granted;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
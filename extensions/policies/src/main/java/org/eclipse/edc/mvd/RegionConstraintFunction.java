@@ -15,45 +15,59 @@
 package org.eclipse.edc.mvd;
 
 import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
-import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
 import org.eclipse.edc.policy.engine.spi.PolicyContext;
 import org.eclipse.edc.policy.model.Operator;
 import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public class RegionConstraintFunction implements AtomicConstraintFunction<Permission> {
+/**
+ * Evaluates the region constraint against the regions claimed in the credentials of the participant agent.
+ * <p>
+ * The regions of an agent are extracted once per catalog request and memoized in its {@link AgentMemo}, as the same
+ * agent is evaluated against the policy of every contract definition during the request. The function holds no state
+ * itself.
+ */
+public class RegionConstraintFunction implements ConcurrencySafeConstraintFunction<Permission> {
 
     private static final String REGION_KEY = "region";
 
+    private final Function<ParticipantAgent, Set<String>> regionsOf = agent -> getRegions(agent.getClaims());
+
     @Override
     public boolean evaluate(Operator operator, Object rightValue, Permission rule, PolicyContext context) {
-        var regions = getRegions(context.getParticipantAgent().getClaims());
+        var regions = AgentMemo.get(context, this, regionsOf);
         switch (operator) {
             case EQ:
                 return regions.contains(rightValue);
             case NEQ:
                 return !regions.contains(rightValue);
             case IN:
-                return !Collections.disjoint((Collection<?>) rightValue, regions);
+                for (var region : (Collection<?>) rightValue) {
+                    if (regions.contains(region)) {
+                        return true;
+                    }
+                }
+                return false;
             default:
                 return false;
         }
     }
 
-    private List<String> getRegions(Map<String, Object> claims) {
+    private Set<String> getRegions(Map<String, Object> claims) {
         return claims.values().stream()
                 .filter(Credential.class::isInstance)
                 .map(o -> (Credential) o)
                 .map(this::getRegion)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Nullable
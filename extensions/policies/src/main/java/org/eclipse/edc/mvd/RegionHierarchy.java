@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable hierarchy of regions, e.g. countries within economic areas, with interned region IDs.
+ * <p>
+ * Every region of the hierarchy is interned to a small int, and the region itself together with all regions
+ * containing it is precomputed as a {@link BitSet}, so that testing whether a participant is located in a region is a
+ * single bit lookup. Region names are matched case-insensitively. Regions that are not part of the hierarchy have no
+ * ID, so the hierarchy never grows with the regions claimed by participants or used in policies.
+ */
+class RegionHierarchy {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final BitSet[] closures;
+
+    private RegionHierarchy(Map<String, String> parents) {
+        var names = new HashMap<String, Integer>();
+        for (var entry : parents.entrySet()) {
+            names.putIfAbsent(normalize(entry.getKey()), names.size());
+            names.putIfAbsent(normalize(entry.getValue()), names.size());
+        }
+        closures = new BitSet[names.size()];
+        names.forEach((name, id) -> {
+            // variants are registered so that lookups of the usual spellings do not need to normalize
+            ids.put(name, id);
+            ids.putIfAbsent(name.toUpperCase(Locale.ROOT), id);
+            var closure = new BitSet(names.size());
+            closure.set(id);
+            closures[id] = closure;
+        });
+
+        var normalizedParents = new HashMap<String, String>();
+        parents.forEach((child, parent) -> {
+            // e.g. the country US within the region us, which only differ in case
+            if (!normalize(child).equals(normalize(parent))) {
+                normalizedParents.put(normalize(child), normalize(parent));
+            }
+        });
+        for (var child : normalizedParents.keySet()) {
+            var closure = closures[names.get(child)];
+            var visited = new HashSet<String>();
+            var region = child;
+            while (region != null) {
+                if (!visited.add(region)) {
+                    throw new IllegalArgumentException("Region hierarchy contains a cycle through " + region);
+                }
+                closure.set(names.get(region));
+                region = normalizedParents.get(region);
+            }
+        }
+    }
+
+    /**
+     * Creates the hierarchy from properties mapping each region to the region containing it, e.g. {@code FR=eu}. A
+     * region mapped to itself, e.g. {@code US=us}, is only added to the hierarchy.
+     */
+    static RegionHierarchy of(Properties properties) {
+        var parents = new HashMap<String, String>();
+        properties.stringPropertyNames().forEach(region -> parents.put(region.trim(), properties.getProperty(region).trim()));
+        return new RegionHierarchy(parents);
+    }
+
+    /**
+     * Returns the ID of a region of the hierarchy, or -1 if the region is not part of it.
+     */
+    public int idOf(String region) {
+        var id = ids.get(region);
+        if (id == null) {
+            id = ids.get(normalize(region));
+        }
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Adds the region and all regions containing it to the set.
+     */
+    public void addWithAncestors(int id, BitSet regions) {
+        regions.or(closures[id]);
+    }
+
+    /**
+     * Number of regions of the hierarchy.
+     */
+    public int size() {
+        return closures.length;
+    }
+
+    static String normalize(String region) {
+        return region.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Evaluates a location constraint against a {@link RegionHierarchy}: a participant located in a region is also located
+ * in every region containing it, e.g. a participant in FR matches {@code eu}. The location of a participant is taken
+ * from the {@code region} and {@code country} claims of its credentials.
+ * <p>
+ * The locations of an agent are computed once per catalog request as a bit set of interned region IDs and memoized in
+ * the {@link AgentMemo} of the request, and the right operand of an IN constraint is compiled once per distinct list
+ * of regions. The compiled operand is then looked up by the identity of the operand instance, so an evaluation of a
+ * loaded policy neither copies nor hashes its operand and only tests bits. Operands are expected not to change once
+ * their policy has been loaded, only a change of their size is detected. Regions outside the hierarchy are compared by
+ * name and never added to it.
+ */
+public class RegionHierarchyConstraintFunction implements ConcurrencySafeConstraintFunction<Permission> {
+
+    private static final String[] LOCATION_KEYS = { "region", "country" };
+    private static final int MAX_COMPILED_OPERANDS = 1024;
+    private static final int OPERAND_SLOTS = 256;
+
+    private final RegionHierarchy hierarchy;
+    private final Function<ParticipantAgent, Regions> locationsOf = this::computeLocations;
+    // compiled IN operands keyed by an immutable copy of their regions, so that equal operands of different policies
+    // share an entry and a mutated operand is compiled again
+    private final Map<List<?>, Regions> compiledOperands = new ConcurrentHashMap<>();
+    // keys of the compiled operands in the order they were added, the first ones are evicted once the cache is full
+    private final Queue<List<?>> compilationOrder = new ConcurrentLinkedQueue<>();
+    // the compiled operands last evaluated, by the identity of their operand instance
+    private final AtomicReferenceArray<CompiledOperand> operandSlots = new AtomicReferenceArray<>(OPERAND_SLOTS);
+
+    RegionHierarchyConstraintFunction(RegionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    public boolean evaluate(Operator operator, Object rightValue, Permission rule, PolicyContext context) {
+        var locations = AgentMemo.get(context, this, locationsOf);
+        switch (operator) {
+            case EQ:
+                return contains(locations, rightValue);
+            case NEQ:
+                return !contains(locations, rightValue);
+            case IN:
+                return rightValue instanceof Collection && locations.intersects(compile((Collection<?>) rightValue));
+            default:
+                return false;
+        }
+    }
+
+    private boolean contains(Regions locations, Object region) {
+        if (!(region instanceof String)) {
+            return false;
+        }
+        var id = hierarchy.idOf((String) region);
+        if (id >= 0) {
+            return locations.known.get(id);
+        }
+        return !locations.unknown.isEmpty() && locations.unknown.contains(RegionHierarchy.normalize((String) region));
+    }
+
+    private Regions compile(Collection<?> regions) {
+        var slot = System.identityHashCode(regions) & (OPERAND_SLOTS - 1);
+        var cached = operandSlots.get(slot);
+        if (cached != null && cached.operand == regions && cached.size == regions.size()) {
+            return cached.regions;
+        }
+        var compiled = compileByValue(regions);
+        operandSlots.set(slot, new CompiledOperand(regions, compiled));
+        return compiled;
+    }
+
+    private Regions compileByValue(Collection<?> regions) {
+        // a list operand is looked up as is, as lists of the same elements are equal whatever their implementation
+        var compiled = compiledOperands.get(regions instanceof List ? regions : new ArrayList<>(regions));
+        if (compiled != null) {
+            return compiled;
+        }
+        var builder = new RegionsBuilder(false);
+        for (var region : regions) {
+            if (region instanceof String) {
+                builder.add((String) region);
+            }
+        }
+        var result = builder.build();
+        var key = Collections.unmodifiableList(new ArrayList<>(regions));
+        if (compiledOperands.putIfAbsent(key, result) == null) {
+            compilationOrder.add(key);
+            while (compiledOperands.size() > MAX_COMPILED_OPERANDS) {
+                var eldest = compilationOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                compiledOperands.remove(eldest);
+            }
+        }
+        return result;
+    }
+
+    private Regions computeLocations(ParticipantAgent agent) {
+        var builder = new RegionsBuilder(true);
+        for (var claim : agent.getClaims().values()) {
+            if (claim instanceof Credential) {
+                var claims = ((Credential) claim).getCredentialSubject().getClaims();
+                for (var key : LOCATION_KEYS) {
+                    if (claims.get(key) instanceof String) {
+                        builder.add((String) claims.get(key));
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Set of regions: the regions of the hierarchy as bits of their IDs, and the normalized names of all other regions.
+     * The latter are kept with the agent or operand they belong to rather than interned, so that they are released
+     * together with it.
+     */
+    private static final class Regions {
+        private final BitSet known;
+        private final Set<String> unknown;
+
+        private Regions(BitSet known, Set<String> unknown) {
+            this.known = known;
+            this.unknown = unknown;
+        }
+
+        boolean intersects(Regions other) {
+            return known.intersects(other.known) || !unknown.isEmpty() && !other.unknown.isEmpty() && !Collections.disjoint(unknown, other.unknown);
+        }
+    }
+
+    private static final class CompiledOperand {
+        private final Collection<?> operand;
+        private final int size;
+        private final Regions regions;
+
+        private CompiledOperand(Collection<?> operand, Regions regions) {
+            this.operand = operand;
+            this.size = operand.size();
+            this.regions = regions;
+        }
+    }
+
+    private class RegionsBuilder {
+        private final boolean withAncestors;
+        private final BitSet known = new BitSet(hierarchy.size());
+        private final Set<String> unknown = new TreeSet<>();
+
+        private RegionsBuilder(boolean withAncestors) {
+            this.withAncestors = withAncestors;
+        }
+
+        void add(String region) {
+            var id = hierarchy.idOf(region);
+            if (id < 0) {
+                unknown.add(RegionHierarchy.normalize(region));
+            } else if (withAncestors) {
+                hierarchy.addWithAncestors(id, known);
+            } else {
+                known.set(id);
+            }
+        }
+
+        Regions build() {
+            return new Regions(known, unknown.isEmpty() ? Set.of() : unknown);
+        }
+    }
+}
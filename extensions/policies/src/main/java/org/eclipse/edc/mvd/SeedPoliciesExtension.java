@@ -14,26 +14,77 @@
 
 package org.eclipse.edc.mvd;
 
+import org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionResolver;
+import org.eclipse.edc.connector.contract.spi.offer.store.ContractDefinitionStore;
+import org.eclipse.edc.connector.contract.spi.validation.ContractValidationService;
+import org.eclipse.edc.connector.policy.spi.event.PolicyDefinitionEvent;
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
 import org.eclipse.edc.policy.engine.spi.PolicyEngine;
 import org.eclipse.edc.policy.engine.spi.RuleBindingRegistry;
 import org.eclipse.edc.policy.model.Permission;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Requires;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.event.EventRouter;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.String.format;
 import static org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionResolver.CATALOGING_SCOPE;
 import static org.eclipse.edc.policy.model.OdrlNamespace.ODRL_SCHEMA;
 import static org.eclipse.edc.spi.CoreConstants.EDC_NAMESPACE;
 
 /**
  * Extension to initialize the policies.
+ * <p>
+ * Requires the {@link ContractValidationService} so that it is initialized after the contract core, which registers
+ * the default {@link ContractDefinitionResolver} that the resolver provided here replaces.
  */
+@Requires(ContractValidationService.class)
 public class SeedPoliciesExtension implements ServiceExtension {
 
     private static final String REGION_LOCATION = "regionLocation";
     private static final String REGION_LOCATION_EVALUATION_KEY = EDC_NAMESPACE + REGION_LOCATION;
+    private static final String REGION_HIERARCHY = "regionHierarchy";
+    private static final String REGION_HIERARCHY_EVALUATION_KEY = EDC_NAMESPACE + REGION_HIERARCHY;
+    private static final String DEFAULT_REGION_HIERARCHY_RESOURCE = "region-hierarchy.properties";
+
+    @Setting(value = "Path of a properties file mapping each region to the region containing it, e.g. FR=eu. Defaults to the bundled hierarchy.")
+    private static final String REGION_HIERARCHY_PATH = "policies.region.hierarchy.path";
+
+    @Setting(value = "Time in seconds an access decision of the cataloging scope is reused for agents with the same identity and credential subjects. Disabled by default (0).", type = "long")
+    private static final String DECISION_CACHE_TTL_SECONDS = "policies.decision.cache.ttl.seconds";
+    private static final long DEFAULT_DECISION_CACHE_TTL_SECONDS = 0;
+
+    @Setting(value = "Maximum number of cached access decisions of the cataloging scope.", type = "int")
+    private static final String DECISION_CACHE_MAX_ENTRIES = "policies.decision.cache.max.entries";
+    private static final int DEFAULT_DECISION_CACHE_MAX_ENTRIES = 10_000;
+
+    @Setting(value = "Whether the access policies of large catalog requests are evaluated in parallel. Only the constraint functions registered by this extension "
+            + "are checked to be safe to run concurrently; functions other extensions register for the cataloging scope must be thread-safe too.", type = "boolean")
+    private static final String PARALLEL_EVALUATION_ENABLED = "policies.parallel.evaluation.enabled";
+    private static final boolean DEFAULT_PARALLEL_EVALUATION_ENABLED = false;
+
+    @Setting(value = "Minimum number of distinct access policies of a catalog request evaluated in parallel.", type = "int")
+    private static final String PARALLEL_EVALUATION_THRESHOLD = "policies.parallel.evaluation.threshold";
+    private static final int DEFAULT_PARALLEL_EVALUATION_THRESHOLD = 32;
+
+    @Setting(value = "Number of threads evaluating access policies in parallel, defaults to the number of available processors.", type = "int")
+    private static final String PARALLEL_EVALUATION_PARALLELISM = "policies.parallel.evaluation.parallelism";
 
     @Inject
     private RuleBindingRegistry ruleBindingRegistry;
@@ -47,6 +98,28 @@ public class SeedPoliciesExtension implements ServiceExtension {
     @Inject
     private Monitor monitor;
 
+    @Inject
+    private ContractDefinitionStore contractDefinitionStore;
+
+    @Inject
+    private PolicyDefinitionStore policyDefinitionStore;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject
+    private Clock clock;
+
+    private PolicyDecisionCache decisionCache;
+
+    private ForkJoinPool evaluationPool;
+
+    private int parallelThreshold;
+
+    // whether every function this extension registers for the cataloging scope may be evaluated concurrently,
+    // functions registered by other extensions are not known here
+    private boolean concurrencySafe = true;
+
     @Override
     public String name() {
         return "Seed policies.";
@@ -62,7 +135,67 @@ public class SeedPoliciesExtension implements ServiceExtension {
         ruleBindingRegistry.bind("USE", CATALOGING_SCOPE);
         ruleBindingRegistry.bind(ODRL_SCHEMA + "use", CATALOGING_SCOPE);
         ruleBindingRegistry.bind(REGION_LOCATION_EVALUATION_KEY, CATALOGING_SCOPE);
-        policyEngine.registerFunction(CATALOGING_SCOPE, Permission.class, REGION_LOCATION_EVALUATION_KEY, new RegionConstraintFunction());
+        registerFunction(REGION_LOCATION_EVALUATION_KEY, new RegionConstraintFunction());
+
+        ruleBindingRegistry.bind(REGION_HIERARCHY_EVALUATION_KEY, CATALOGING_SCOPE);
+        registerFunction(REGION_HIERARCHY_EVALUATION_KEY, new RegionHierarchyConstraintFunction(regionHierarchy(context)));
+
+        var ttl = Duration.ofSeconds(context.getSetting(DECISION_CACHE_TTL_SECONDS, DEFAULT_DECISION_CACHE_TTL_SECONDS));
+        if (!ttl.isZero()) {
+            decisionCache = new PolicyDecisionCache(typeManager.getMapper(), ttl, context.getSetting(DECISION_CACHE_MAX_ENTRIES, DEFAULT_DECISION_CACHE_MAX_ENTRIES), clock);
+            eventRouter.registerSync(PolicyDefinitionEvent.class, decisionCache);
+        }
+
+        if (context.getSetting(PARALLEL_EVALUATION_ENABLED, DEFAULT_PARALLEL_EVALUATION_ENABLED)) {
+            if (concurrencySafe) {
+                var parallelism = context.getSetting(PARALLEL_EVALUATION_PARALLELISM, Runtime.getRuntime().availableProcessors());
+                evaluationPool = new ForkJoinPool(parallelism);
+                parallelThreshold = context.getSetting(PARALLEL_EVALUATION_THRESHOLD, DEFAULT_PARALLEL_EVALUATION_THRESHOLD);
+            } else {
+                monitor.warning("Parallel policy evaluation disabled, as not every constraint function registered by this extension is safe to run concurrently");
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (evaluationPool != null) {
+            evaluationPool.shutdown();
+        }
+    }
+
+    /**
+     * Provides the contract definition resolver evaluating each distinct access policy once per catalog request.
+     */
+    @Provider
+    public ContractDefinitionResolver contractDefinitionResolver() {
+        return new DeduplicatingContractDefinitionResolver(contractDefinitionStore, policyDefinitionStore, policyEngine, typeManager.getMapper(), decisionCache, monitor,
+                evaluationPool, parallelThreshold);
+    }
+
+    private void registerFunction(String key, AtomicConstraintFunction<Permission> function) {
+        policyEngine.registerFunction(CATALOGING_SCOPE, Permission.class, key, function);
+        concurrencySafe &= function instanceof ConcurrencySafeConstraintFunction;
+    }
+
+    private RegionHierarchy regionHierarchy(ServiceExtensionContext context) {
+        var path = context.getSetting(REGION_HIERARCHY_PATH, null);
+        var properties = new Properties();
+        try (InputStream in = path != null ? Files.newInputStream(Path.of(path)) : getClass().getClassLoader().getResourceAsStream(DEFAULT_REGION_HIERARCHY_RESOURCE)) {
+            if (in == null) {
+                throw new EdcException("Region hierarchy resource not found: " + DEFAULT_REGION_HIERARCHY_RESOURCE);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new EdcException("Failed to read region hierarchy " + path, e);
+        }
+        try {
+            var hierarchy = RegionHierarchy.of(properties);
+            monitor.debug(format("Loaded region hierarchy with %d regions", hierarchy.size()));
+            return hierarchy;
+        } catch (IllegalArgumentException e) {
+            throw new EdcException("Invalid region hierarchy: " + e.getMessage(), e);
+        }
     }
 
 }
@@ -0,0 +1,199 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.connector.contract.spi.offer.store.ContractDefinitionStore;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractDefinition;
+import org.eclipse.edc.connector.policy.spi.PolicyDefinition;
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.policy.engine.spi.PolicyEngine;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionResolver.CATALOGING_SCOPE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeduplicatingContractDefinitionResolverTest {
+
+    private final ContractDefinitionStore definitionStore = mock(ContractDefinitionStore.class);
+    private final PolicyDefinitionStore policyStore = mock(PolicyDefinitionStore.class);
+    private final PolicyEngine policyEngine = mock(PolicyEngine.class);
+    private final ParticipantAgent agent = new ParticipantAgent(Map.of(), Map.of());
+    private final Policy openPolicy = Policy.Builder.newInstance().permission(Permission.Builder.newInstance().build()).build();
+    private final Policy restrictedPolicy = Policy.Builder.newInstance().build();
+    private DeduplicatingContractDefinitionResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new DeduplicatingContractDefinitionResolver(definitionStore, policyStore, policyEngine, new ObjectMapper(), null, mock(Monitor.class), null, 0);
+        when(policyStore.findById("open")).thenReturn(policyDefinition("open", openPolicy));
+        when(policyStore.findById("open-copy")).thenReturn(policyDefinition("open-copy", Policy.Builder.newInstance().permission(Permission.Builder.newInstance().build()).build()));
+        when(policyStore.findById("restricted")).thenReturn(policyDefinition("restricted", restrictedPolicy));
+        when(policyEngine.evaluate(eq(CATALOGING_SCOPE), any(Policy.class), any(ParticipantAgent.class), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(1) == restrictedPolicy ? Result.failure("denied") : Result.success());
+    }
+
+    @Test
+    void definitionsFor_evaluatesEachDistinctPolicyOnce() {
+        when(definitionStore.findAll(any())).thenReturn(IntStream.range(0, 100)
+                .mapToObj(i -> definition("definition-" + i, i % 2 == 0 ? "open" : "restricted")));
+
+        var definitions = resolver.definitionsFor(agent).toList();
+
+        assertThat(definitions).hasSize(50).allSatisfy(definition -> assertThat(definition.getAccessPolicyId()).isEqualTo("open"));
+        verify(policyEngine, times(2)).evaluate(eq(CATALOGING_SCOPE), any(Policy.class), eq(agent), anyMap());
+    }
+
+    @Test
+    void definitionsFor_sharesDecisionBetweenStructurallyEqualPolicies() {
+        when(definitionStore.findAll(any())).thenReturn(IntStream.range(0, 10)
+                .mapToObj(i -> definition("definition-" + i, i % 2 == 0 ? "open" : "open-copy")));
+
+        assertThat(resolver.definitionsFor(agent)).hasSize(10);
+        verify(policyEngine, times(1)).evaluate(eq(CATALOGING_SCOPE), any(Policy.class), eq(agent), anyMap());
+    }
+
+    @Test
+    void definitionsFor_reusesCachedDecisionsAcrossRequests() {
+        var decisionCache = new PolicyDecisionCache(new ObjectMapper(), Duration.ofSeconds(30), 100, Clock.systemUTC());
+        var cachingResolver = new DeduplicatingContractDefinitionResolver(definitionStore, policyStore, policyEngine, new ObjectMapper(), decisionCache, mock(Monitor.class), null, 0);
+        when(definitionStore.findAll(any())).thenAnswer(invocation -> IntStream.range(0, 10)
+                .mapToObj(i -> definition("definition-" + i, i % 2 == 0 ? "open" : "restricted")));
+
+        assertThat(cachingResolver.definitionsFor(agent)).hasSize(5);
+        assertThat(cachingResolver.definitionsFor(new ParticipantAgent(Map.of(), Map.of()))).hasSize(5);
+
+        verify(policyEngine, times(2)).evaluate(eq(CATALOGING_SCOPE), any(Policy.class), any(ParticipantAgent.class), anyMap());
+    }
+
+    @Test
+    void definitionsFor_evaluatesDistinctPoliciesInParallel() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallelResolver = new DeduplicatingContractDefinitionResolver(definitionStore, policyStore, policyEngine, new ObjectMapper(), null, mock(Monitor.class), pool, 2);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            when(policyEngine.evaluate(eq(CATALOGING_SCOPE), any(Policy.class), any(ParticipantAgent.class), anyMap())).thenAnswer(invocation -> {
+                threads.add(Thread.currentThread());
+                return invocation.getArgument(1) == restrictedPolicy ? Result.failure("denied") : Result.success();
+            });
+            when(definitionStore.findAll(any())).thenReturn(IntStream.range(0, 100)
+                    .mapToObj(i -> definition("definition-" + i, i % 2 == 0 ? "open" : "restricted")));
+
+            var definitions = parallelResolver.definitionsFor(agent).toList();
+
+            assertThat(definitions).hasSize(50).allSatisfy(definition -> assertThat(definition.getAccessPolicyId()).isEqualTo("open"));
+            assertThat(definitions.get(0).getId()).isEqualTo("definition-0");
+            assertThat(threads).doesNotContain(Thread.currentThread());
+            verify(policyEngine, times(2)).evaluate(eq(CATALOGING_SCOPE), any(Policy.class), eq(agent), anyMap());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void definitionsFor_evaluatesDistinctPoliciesConcurrently() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallelResolver = new DeduplicatingContractDefinitionResolver(definitionStore, policyStore, policyEngine, new ObjectMapper(), null, mock(Monitor.class), pool, 2);
+            IntStream.range(0, 4).forEach(i -> when(policyStore.findById("policy-" + i))
+                    .thenReturn(policyDefinition("policy-" + i, Policy.Builder.newInstance().target("target-" + i).build())));
+            // every evaluation waits for all four to have started, which only succeeds if they run at the same time
+            var started = new CountDownLatch(4);
+            when(policyEngine.evaluate(eq(CATALOGING_SCOPE), any(Policy.class), any(ParticipantAgent.class), anyMap())).thenAnswer(invocation -> {
+                started.countDown();
+                return started.await(5, TimeUnit.SECONDS) ? Result.success() : Result.failure("evaluated sequentially");
+            });
+            when(definitionStore.findAll(any())).thenReturn(IntStream.range(0, 40)
+                    .mapToObj(i -> definition("definition-" + i, "policy-" + i % 4)));
+
+            assertThat(parallelResolver.definitionsFor(agent)).hasSize(40);
+            verify(policyEngine, times(4)).evaluate(eq(CATALOGING_SCOPE), any(Policy.class), eq(agent), anyMap());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void definitionsFor_belowThresholdEvaluatesOnCallingThread() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallelResolver = new DeduplicatingContractDefinitionResolver(definitionStore, policyStore, policyEngine, new ObjectMapper(), null, mock(Monitor.class), pool, 3);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            when(policyEngine.evaluate(eq(CATALOGING_SCOPE), any(Policy.class), any(ParticipantAgent.class), anyMap())).thenAnswer(invocation -> {
+                threads.add(Thread.currentThread());
+                return Result.success();
+            });
+            when(definitionStore.findAll(any())).thenReturn(IntStream.range(0, 10)
+                    .mapToObj(i -> definition("definition-" + i, i % 2 == 0 ? "open" : "restricted")));
+
+            assertThat(parallelResolver.definitionsFor(agent)).hasSize(10);
+            assertThat(threads).containsExactly(Thread.currentThread());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void definitionsFor_unknownPolicyDeniesAccess() {
+        when(definitionStore.findAll(any())).thenReturn(IntStream.range(0, 1).mapToObj(i -> definition("definition", "unknown")));
+
+        assertThat(resolver.definitionsFor(agent)).isEmpty();
+    }
+
+    @Test
+    void definitionFor_evaluatesAccessPolicy() {
+        when(definitionStore.findById("definition-1")).thenReturn(definition("definition-1", "open"));
+        when(definitionStore.findById("definition-2")).thenReturn(definition("definition-2", "restricted"));
+
+        assertThat(resolver.definitionFor(agent, "definition-1")).isNotNull();
+        assertThat(resolver.definitionFor(agent, "definition-2")).isNull();
+        assertThat(resolver.definitionFor(agent, "unknown")).isNull();
+    }
+
+    private static ContractDefinition definition(String id, String accessPolicyId) {
+        return ContractDefinition.Builder.newInstance()
+                .id(id)
+                .accessPolicyId(accessPolicyId)
+                .contractPolicyId(accessPolicyId)
+                .build();
+    }
+
+    private static PolicyDefinition policyDefinition(String id, Policy policy) {
+        return PolicyDefinition.Builder.newInstance().id(id).policy(policy).build();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PolicyDecisionCacheTest {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T00:00:00Z");
+
+    private final ParticipantAgent euAgent = agent(Map.of("region", "eu"));
+    private final ParticipantAgent usAgent = agent(Map.of("region", "us"));
+    private final Clock clock = mock(Clock.class);
+    private final PolicyDecisionCache cache = new PolicyDecisionCache(new ObjectMapper(), Duration.ofSeconds(30), 3, clock);
+
+    @Test
+    void get_returnsDecisionForSamePolicyAndClaims() {
+        when(clock.instant()).thenReturn(NOW);
+        cache.put(key("{policy}", euAgent), true);
+
+        assertThat(cache.get(key("{policy}", agent(Map.of("region", "eu"))))).isTrue();
+        assertThat(cache.get(key("{policy}", usAgent))).isNull();
+        assertThat(cache.get(key("{other}", euAgent))).isNull();
+    }
+
+    @Test
+    void fingerprint_coversAllSubjectClaimsAndAttributes() {
+        var claims = new LinkedHashMap<String, Object>();
+        claims.put("region", "eu");
+        claims.put("tier", "gold");
+        var reordered = new LinkedHashMap<String, Object>();
+        reordered.put("tier", "gold");
+        reordered.put("region", "eu");
+
+        assertThat(cache.fingerprint(agent(claims)))
+                .isEqualTo(cache.fingerprint(agent(reordered)))
+                .isNotEqualTo(cache.fingerprint(agent(Map.of("region", "eu", "tier", "silver"))))
+                .isNotEqualTo(cache.fingerprint(agent(Map.of("region", "eu"))))
+                .isNotEqualTo(cache.fingerprint(new ParticipantAgent(agent(claims).getClaims(), Map.of("edc:identity", "company1"))));
+    }
+
+    @Test
+    void fingerprint_ignoresPerTokenClaims() {
+        var credentials = agent(Map.of("region", "eu")).getClaims();
+        var first = new LinkedHashMap<String, Object>(credentials);
+        first.putAll(Map.of("iat", 1672531200L, "exp", 1672531500L, "jti", "token-1"));
+        var second = new LinkedHashMap<String, Object>(credentials);
+        second.putAll(Map.of("iat", 1672531260L, "exp", 1672531560L, "jti", "token-2"));
+
+        assertThat(cache.fingerprint(new ParticipantAgent(first, Map.of("edc:identity", "company1"))))
+                .isEqualTo(cache.fingerprint(new ParticipantAgent(second, Map.of("edc:identity", "company1"))))
+                .isNotEqualTo(cache.fingerprint(new ParticipantAgent(second, Map.of("edc:identity", "company2"))));
+    }
+
+    @Test
+    void get_decisionExpires() {
+        when(clock.instant()).thenReturn(NOW);
+        cache.put(key("{policy}", euAgent), false);
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(29));
+        assertThat(cache.get(key("{policy}", euAgent))).isFalse();
+        when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+        assertThat(cache.get(key("{policy}", euAgent))).isNull();
+    }
+
+    @Test
+    void put_evictsEarliestDecisionsBeyondMaxEntries() {
+        for (var i = 0; i < 4; i++) {
+            when(clock.instant()).thenReturn(NOW.plusSeconds(i));
+            cache.put(key("{policy" + i + "}", euAgent), true);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(key("{policy0}", euAgent))).isNull();
+        assertThat(cache.get(key("{policy1}", euAgent))).isTrue();
+        assertThat(cache.get(key("{policy3}", euAgent))).isTrue();
+    }
+
+    @Test
+    void put_evictsExpiredDecisions() {
+        when(clock.instant()).thenReturn(NOW);
+        cache.put(key("{policy0}", euAgent), true);
+        cache.put(key("{policy1}", euAgent), true);
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+        cache.put(key("{policy2}", euAgent), true);
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void on_eventInvalidatesAllDecisions() {
+        when(clock.instant()).thenReturn(NOW);
+        cache.put(key("{policy}", euAgent), true);
+
+        cache.on(mock(EventEnvelope.class));
+
+        assertThat(cache.get(key("{policy}", euAgent))).isNull();
+    }
+
+    private String key(String policyStructure, ParticipantAgent agent) {
+        return cache.key(policyStructure, cache.fingerprint(agent));
+    }
+
+    private static ParticipantAgent agent(Map<String, Object> subjectClaims) {
+        var subject = CredentialSubject.Builder.newInstance().id("test");
+        subjectClaims.forEach(subject::claim);
+        var credential = Credential.Builder.newInstance()
+                .id("test")
+                .context("test")
+                .type("VerifiableCredential")
+                .issuer("did:web:authority")
+                .issuanceDate(Date.from(NOW))
+                .credentialSubject(subject.build())
+                .build();
+        return new ParticipantAgent(Map.of("credential", credential), Map.of());
+    }
+}
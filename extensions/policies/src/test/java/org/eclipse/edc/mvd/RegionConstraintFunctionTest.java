@@ -31,6 +31,9 @@ import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class RegionConstraintFunctionTest {
 
@@ -103,6 +106,27 @@ class RegionConstraintFunctionTest {
         assertThat(CONSTRAINT_FUNCTION.evaluate(Operator.IN, List.of(REGION_EU), PERMISSION, policyContext)).isFalse();
     }
 
+    @Test
+    void verifyPolicy_regionsOfAgentExtractedOnce() {
+        var function = new RegionConstraintFunction();
+        var agent = spy(new ParticipantAgent(toCredentialsMap(REGION_KEY, REGION_EU), Map.of()));
+        var contextInformation = AgentMemo.newContextInformation();
+
+        assertThat(function.evaluate(Operator.EQ, REGION_EU, PERMISSION, new PolicyContextImpl(agent, contextInformation))).isTrue();
+        assertThat(function.evaluate(Operator.IN, List.of("us", REGION_EU), PERMISSION, new PolicyContextImpl(agent, contextInformation))).isTrue();
+        assertThat(function.evaluate(Operator.NEQ, REGION_EU, PERMISSION, new PolicyContextImpl(agent, contextInformation))).isFalse();
+
+        verify(agent, times(1)).getClaims();
+    }
+
+    @Test
+    void verifyPolicy_regionsNotSharedBetweenAgents() {
+        var function = new RegionConstraintFunction();
+
+        assertThat(function.evaluate(Operator.EQ, REGION_EU, PERMISSION, toPolicyContext(toCredentialsMap(REGION_KEY, REGION_EU)))).isTrue();
+        assertThat(function.evaluate(Operator.EQ, REGION_EU, PERMISSION, toPolicyContext(toCredentialsMap(REGION_KEY, "us")))).isFalse();
+    }
+
     private PolicyContext toPolicyContext(Map<String, Object> claims) {
         return new PolicyContextImpl(new ParticipantAgent(claims, Map.of()), Map.of());
     }
@@ -0,0 +1,203 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.engine.spi.PolicyContextImpl;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RegionHierarchyConstraintFunctionTest {
+
+    private static final Permission PERMISSION = Permission.Builder.newInstance().build();
+
+    private RegionHierarchy hierarchy;
+    private RegionHierarchyConstraintFunction function;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new Properties();
+        properties.setProperty("FR", "eu");
+        properties.setProperty("DE", "eu");
+        properties.setProperty("US", "us");
+        hierarchy = RegionHierarchy.of(properties);
+        function = new RegionHierarchyConstraintFunction(hierarchy);
+    }
+
+    @Test
+    void eq_countryMatchesContainingRegion() {
+        var context = toPolicyContext(Map.of("region", "eu", "country", "FR"));
+
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.EQ, "FR", PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.EQ, "DE", PERMISSION, context)).isFalse();
+        assertThat(function.evaluate(Operator.EQ, "us", PERMISSION, context)).isFalse();
+    }
+
+    @Test
+    void eq_countryOnly() {
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, toPolicyContext(Map.of("country", "DE")))).isTrue();
+    }
+
+    @Test
+    void eq_regionDoesNotImplyCountry() {
+        assertThat(function.evaluate(Operator.EQ, "FR", PERMISSION, toPolicyContext(Map.of("region", "eu")))).isFalse();
+    }
+
+    @Test
+    void eq_caseInsensitive() {
+        assertThat(function.evaluate(Operator.EQ, "EU", PERMISSION, toPolicyContext(Map.of("country", "fr")))).isTrue();
+    }
+
+    @Test
+    void eq_mixedCase() {
+        var context = toPolicyContext(Map.of("country", "FR"));
+
+        assertThat(function.evaluate(Operator.EQ, "Eu", PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.EQ, "fR", PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.NEQ, "Eu", PERMISSION, context)).isFalse();
+    }
+
+    @Test
+    void eq_regionOutsideHierarchy() {
+        var context = toPolicyContext(Map.of("region", "apac"));
+
+        assertThat(function.evaluate(Operator.EQ, "apac", PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.EQ, "APAC", PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, context)).isFalse();
+        assertThat(function.evaluate(Operator.EQ, "latam", PERMISSION, context)).isFalse();
+        assertThat(function.evaluate(Operator.IN, List.of("latam", "Apac"), PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.IN, List.of("latam", "eu"), PERMISSION, context)).isFalse();
+    }
+
+    @Test
+    void regionsOutsideHierarchyAreNotInterned() {
+        var size = hierarchy.size();
+
+        function.evaluate(Operator.EQ, "eu", PERMISSION, toPolicyContext(Map.of("region", "apac", "country", "JP")));
+        function.evaluate(Operator.IN, List.of("latam", "mena"), PERMISSION, toPolicyContext(Map.of("country", "FR")));
+
+        assertThat(hierarchy.size()).isEqualTo(size);
+        assertThat(hierarchy.idOf("apac")).isEqualTo(-1);
+        assertThat(hierarchy.idOf("latam")).isEqualTo(-1);
+    }
+
+    @Test
+    void neq() {
+        assertThat(function.evaluate(Operator.NEQ, "eu", PERMISSION, toPolicyContext(Map.of("country", "US")))).isTrue();
+        assertThat(function.evaluate(Operator.NEQ, "eu", PERMISSION, toPolicyContext(Map.of("country", "FR")))).isFalse();
+    }
+
+    @Test
+    void in_largeRegionList() {
+        var regions = IntStream.range(0, 1000).mapToObj(i -> "r" + i).collect(Collectors.toList());
+        regions.add("eu");
+
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, toPolicyContext(Map.of("country", "DE")))).isTrue();
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, toPolicyContext(Map.of("country", "US")))).isFalse();
+        assertThat(function.evaluate(Operator.IN, List.of("us", "r1"), PERMISSION, toPolicyContext(Map.of("country", "US")))).isTrue();
+    }
+
+    @Test
+    void in_mutatedOperandCompiledAgain() {
+        var regions = new ArrayList<>(List.of("us"));
+        var context = toPolicyContext(Map.of("country", "FR"));
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, context)).isFalse();
+
+        regions.add("eu");
+
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.IN, Set.of("us", "eu"), PERMISSION, context)).isTrue();
+    }
+
+    @Test
+    void in_operandInstanceCompiledOnce() {
+        var regions = spy(new HashSet<>(Set.of("us", "eu")));
+        var context = toPolicyContext(Map.of("country", "FR"));
+
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, context)).isTrue();
+        assertThat(function.evaluate(Operator.IN, regions, PERMISSION, toPolicyContext(Map.of("country", "US")))).isTrue();
+
+        verify(regions, times(1)).iterator();
+    }
+
+    @Test
+    void in_invalidOperand() {
+        assertThat(function.evaluate(Operator.IN, "eu", PERMISSION, toPolicyContext(Map.of("country", "FR")))).isFalse();
+    }
+
+    @Test
+    void unsupportedOperator() {
+        assertThat(function.evaluate(Operator.GT, "eu", PERMISSION, toPolicyContext(Map.of("country", "FR")))).isFalse();
+    }
+
+    @Test
+    void invalidClaimFormat() {
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, toPolicyContext(Map.of("region", Map.of())))).isFalse();
+    }
+
+    @Test
+    void locationsOfAgentExtractedOnce() {
+        var agent = spy(new ParticipantAgent(toCredentialsMap(Map.of("country", "FR")), Map.of()));
+        var contextInformation = AgentMemo.newContextInformation();
+
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, new PolicyContextImpl(agent, contextInformation))).isTrue();
+        assertThat(function.evaluate(Operator.IN, List.of("us", "eu"), PERMISSION, new PolicyContextImpl(agent, contextInformation))).isTrue();
+
+        verify(agent, times(1)).getClaims();
+    }
+
+    private PolicyContext toPolicyContext(Map<String, Object> claims) {
+        return new PolicyContextImpl(new ParticipantAgent(toCredentialsMap(claims), Map.of()), Map.of());
+    }
+
+    private Map<String, Object> toCredentialsMap(Map<String, Object> claims) {
+        var subject = CredentialSubject.Builder.newInstance().id("test");
+        claims.forEach(subject::claim);
+        var credential = Credential.Builder.newInstance()
+                .id("test")
+                .context("test")
+                .type("VerifiableCredential")
+                .issuer("did:web:" + UUID.randomUUID())
+                .issuanceDate(Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS)))
+                .credentialSubject(subject.build())
+                .build();
+        return Map.of(UUID.randomUUID().toString(), credential);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegionHierarchyTest {
+
+    @Test
+    void addWithAncestors_includesAllContainingRegions() {
+        var hierarchy = RegionHierarchy.of(properties("FR", "eu", "eu", "world", "US", "us"));
+
+        var regions = new BitSet();
+        hierarchy.addWithAncestors(hierarchy.idOf("FR"), regions);
+
+        assertThat(regions.get(hierarchy.idOf("FR"))).isTrue();
+        assertThat(regions.get(hierarchy.idOf("eu"))).isTrue();
+        assertThat(regions.get(hierarchy.idOf("world"))).isTrue();
+        assertThat(regions.get(hierarchy.idOf("us"))).isFalse();
+        assertThat(hierarchy.size()).isEqualTo(5);
+    }
+
+    @Test
+    void idOf_caseInsensitive() {
+        var hierarchy = RegionHierarchy.of(properties("FR", "eu"));
+
+        assertThat(hierarchy.idOf("EU")).isEqualTo(hierarchy.idOf("eu")).isNotNegative();
+        assertThat(hierarchy.idOf("fr")).isEqualTo(hierarchy.idOf("FR")).isNotNegative();
+    }
+
+    @Test
+    void idOf_mixedCase() {
+        var hierarchy = RegionHierarchy.of(properties("FR", "eu"));
+
+        assertThat(hierarchy.idOf("Eu")).isEqualTo(hierarchy.idOf("eu"));
+        assertThat(hierarchy.idOf("fR")).isEqualTo(hierarchy.idOf("FR"));
+    }
+
+    @Test
+    void idOf_unknownRegionIsNotAdded() {
+        var hierarchy = RegionHierarchy.of(properties("FR", "eu"));
+
+        assertThat(hierarchy.idOf("apac")).isEqualTo(-1);
+        assertThat(hierarchy.idOf("apac")).isEqualTo(-1);
+        assertThat(hierarchy.size()).isEqualTo(2);
+    }
+
+    @Test
+    void of_rejectsCycles() {
+        assertThatThrownBy(() -> RegionHierarchy.of(properties("FR", "eu", "eu", "FR")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void defaultHierarchy_containsParticipantCountries() throws Exception {
+        var properties = new Properties();
+        try (var in = getClass().getClassLoader().getResourceAsStream("region-hierarchy.properties")) {
+            properties.load(in);
+        }
+        var hierarchy = RegionHierarchy.of(properties);
+
+        var regions = new BitSet();
+        hierarchy.addWithAncestors(hierarchy.idOf("DE"), regions);
+        assertThat(regions.get(hierarchy.idOf("eu"))).isTrue();
+        assertThat(regions.get(hierarchy.idOf("us"))).isFalse();
+        assertThat(hierarchy.idOf("US")).isEqualTo(hierarchy.idOf("us")).isNotNegative();
+    }
+
+    private static Properties properties(String... childParentPairs) {
+        var properties = new Properties();
+        for (var i = 0; i < childParentPairs.length; i += 2) {
+            properties.setProperty(childParentPairs[i], childParentPairs[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.DatasetResolver;
+import org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionResolver;
+import org.eclipse.edc.connector.contract.spi.offer.store.ContractDefinitionStore;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractDefinition;
+import org.eclipse.edc.connector.policy.spi.PolicyDefinition;
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.junit.extensions.EdcExtension;
+import org.eclipse.edc.policy.engine.spi.PolicyEngine;
+import org.eclipse.edc.policy.engine.spi.RuleBindingRegistry;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.eclipse.edc.spi.protocol.ProtocolWebhook;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionResolver.CATALOGING_SCOPE;
+import static org.eclipse.edc.spi.CoreConstants.EDC_NAMESPACE;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Boots the extension together with the control plane core, to verify that catalog requests are resolved through the
+ * resolver of this extension rather than the one the contract core registers.
+ */
+@ExtendWith(EdcExtension.class)
+class SeedPoliciesExtensionTest {
+
+    private static final String COUNTING_KEY = EDC_NAMESPACE + "counting";
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp(EdcExtension extension) {
+        extension.registerServiceMock(ProtocolWebhook.class, mock(ProtocolWebhook.class));
+    }
+
+    @Test
+    void datasetResolver_usesDeduplicatingResolver(DatasetResolver datasetResolver, ContractDefinitionResolver definitionResolver,
+                                                   ContractDefinitionStore definitionStore, PolicyDefinitionStore policyStore,
+                                                   PolicyEngine policyEngine, RuleBindingRegistry ruleBindingRegistry) {
+        ruleBindingRegistry.bind(COUNTING_KEY, CATALOGING_SCOPE);
+        policyEngine.registerFunction(CATALOGING_SCOPE, Permission.class, COUNTING_KEY, (operator, rightValue, permission, context) -> {
+            evaluations.incrementAndGet();
+            return true;
+        });
+        policyStore.create(PolicyDefinition.Builder.newInstance().id("access").policy(countingPolicy()).build());
+        for (var i = 0; i < 10; i++) {
+            definitionStore.save(ContractDefinition.Builder.newInstance()
+                    .id("definition-" + i)
+                    .accessPolicyId("access")
+                    .contractPolicyId("access")
+                    .build());
+        }
+
+        datasetResolver.query(new ParticipantAgent(Map.of(), Map.of()), QuerySpec.max()).toList();
+
+        assertThat(definitionResolver).isInstanceOf(DeduplicatingContractDefinitionResolver.class);
+        // the contract core's resolver would evaluate the shared access policy once per definition
+        assertThat(evaluations).hasValue(1);
+    }
+
+    private static Policy countingPolicy() {
+        return Policy.Builder.newInstance()
+                .permission(Permission.Builder.newInstance()
+                        .action(Action.Builder.newInstance().type("USE").build())
+                        .constraint(AtomicConstraint.Builder.newInstance()
+                                .leftExpression(new LiteralExpression(COUNTING_KEY))
+                                .operator(Operator.EQ)
+                                .rightExpression(new LiteralExpression("any"))
+                                .build())
+                        .build())
+                .build();
+    }
+}
@@ -6,9 +6,15 @@ dependencies {
     api(libs.rs.spi.core)
     api(libs.fc.spi.core)
 
+    implementation(project(":extensions:catalog-fingerprint"))
+
     implementation(libs.edc.ext.identity.did.core)
     implementation(libs.edc.ext.identity.did.web)
     implementation(libs.rs.core.client)
+    implementation(libs.micrometer.core)
+    implementation(libs.okhttp)
+    implementation(libs.edc.spi.web)
+    implementation(libs.edc.ext.api.management.config)
 
     testImplementation(libs.edc.core.junit)
 }
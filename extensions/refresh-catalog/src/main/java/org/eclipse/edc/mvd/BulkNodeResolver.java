@@ -0,0 +1,184 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.AbstractResult;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Resolves the {@link FederatedCacheNode}s of a list of participants, either one after the other or concurrently on a
+ * dedicated executor. The order of the returned nodes always follows the order of the participants.
+ */
+class BulkNodeResolver {
+
+    private final FederatedCacheNodeResolver resolver;
+    @Nullable
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final Duration timeout;
+    private final Monitor monitor;
+
+    private BulkNodeResolver(FederatedCacheNodeResolver resolver, @Nullable ExecutorService executor, int maxInFlight, Duration timeout, Monitor monitor) {
+        this.resolver = resolver;
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.timeout = timeout;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Creates a resolver that resolves the participants sequentially on the calling thread.
+     */
+    static BulkNodeResolver sequential(FederatedCacheNodeResolver resolver, Monitor monitor) {
+        return new BulkNodeResolver(resolver, null, 1, Duration.ZERO, monitor);
+    }
+
+    /**
+     * Creates a resolver that resolves the participants concurrently.
+     *
+     * @param resolver    resolves a single participant.
+     * @param executor    executor running the resolutions, should provide at least {@code maxInFlight} threads.
+     * @param maxInFlight maximum number of resolutions running at the same time.
+     * @param timeout     time after which a single resolution is abandoned and interrupted, also the maximum time to
+     *                    wait for one of the {@code maxInFlight} slots. An abandoned resolution keeps its slot until
+     *                    its thread actually returns, as blocking HTTP I/O does not react to the interrupt, so the
+     *                    HTTP timeouts of the {@code resolver} should be shorter than this timeout.
+     * @param monitor     monitor
+     */
+    static BulkNodeResolver concurrent(FederatedCacheNodeResolver resolver, ExecutorService executor, int maxInFlight, Duration timeout, Monitor monitor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+        }
+        return new BulkNodeResolver(resolver, executor, maxInFlight, timeout, monitor);
+    }
+
+    public List<FederatedCacheNode> resolveAll(List<ParticipantDto> participants) {
+        var batch = newBatch();
+        participants.forEach(batch::add);
+        return batch.nodes();
+    }
+
+    /**
+     * Drops the state kept for participants missing from the latest full listing, see
+     * {@link FederatedCacheNodeResolver#pruneEndpoints()}.
+     */
+    void pruneEndpoints() {
+        resolver.pruneEndpoints();
+    }
+
+    /**
+     * Starts a batch the participants can be added to one at a time, e.g. while they are still being received.
+     */
+    Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Participants whose resolution has been started. With a concurrent resolver, {@link #add(ParticipantDto)} blocks
+     * while {@code maxInFlight} resolutions are running, which also throttles the producer of the participants. A
+     * participant for which no slot frees up within the timeout is not resolved.
+     */
+    class Batch {
+        private final List<CompletableFuture<Result<FederatedCacheNode>>> results = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        public void add(ParticipantDto participant) {
+            results.add(executor == null ? CompletableFuture.completedFuture(resolver.toFederatedCacheNode(participant)) : submit(participant));
+        }
+
+        /**
+         * Waits for all resolutions of the batch and returns the nodes of the participants that could be resolved.
+         */
+        public List<FederatedCacheNode> nodes() {
+            return results.stream()
+                    .map(CompletableFuture::join)
+                    .filter(AbstractResult::succeeded)
+                    .map(AbstractResult::getContent)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private CompletableFuture<Result<FederatedCacheNode>> submit(ParticipantDto participant) {
+        try {
+            if (!inFlight.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                monitor.warning(format("No resolution of participant %s could be started within %s ms", participant.getDid(), timeout.toMillis()));
+                return CompletableFuture.completedFuture(Result.failure("Timed out waiting to resolve participant: " + participant.getDid()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(Result.failure("Interrupted while resolving participant: " + participant.getDid()));
+        }
+
+        var result = new CompletableFuture<Result<FederatedCacheNode>>();
+        var started = new AtomicBoolean();
+
+        Future<?> task;
+        try {
+            // the permit is returned only once the resolution has actually finished, an abandoned resolution still
+            // occupies its pool thread until e.g. the HTTP timeouts of the resolver end it
+            task = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    result.complete(resolver.toFederatedCacheNode(participant));
+                } catch (Exception e) {
+                    result.complete(Result.failure(format("Resolution of participant %s failed: %s", participant.getDid(), e.getMessage())));
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            result.complete(Result.failure("Resolution rejected for participant: " + participant.getDid()));
+            return result;
+        }
+
+        return result
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(r -> {
+                    if (r == null) {
+                        task.cancel(true);
+                        // a resolution cancelled before it started never runs, so its permit is returned here
+                        if (started.compareAndSet(false, true)) {
+                            inFlight.release();
+                        }
+                        monitor.warning(format("Resolution of participant %s timed out after %s ms", participant.getDid(), timeout.toMillis()));
+                        return Result.failure("Timed out resolving participant: " + participant.getDid());
+                    }
+                    return r;
+                });
+    }
+}
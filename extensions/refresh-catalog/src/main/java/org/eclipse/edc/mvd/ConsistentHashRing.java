@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring assigning keys to one of {@code replicaCount} replicas. Every replica owns a number of virtual
+ * nodes on the ring, so keys spread evenly and adding a replica only moves about {@code 1 / replicaCount} of them.
+ */
+class ConsistentHashRing {
+
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    /**
+     * Constructs {@link ConsistentHashRing}
+     *
+     * @param replicaCount     number of replicas sharing the keys.
+     * @param virtualNodeCount number of points each replica owns on the ring.
+     */
+    ConsistentHashRing(int replicaCount, int virtualNodeCount) {
+        if (replicaCount < 1 || virtualNodeCount < 1) {
+            throw new IllegalArgumentException("replicaCount and virtualNodeCount must be positive");
+        }
+        for (var replica = 0; replica < replicaCount; replica++) {
+            for (var virtualNode = 0; virtualNode < virtualNodeCount; virtualNode++) {
+                ring.put(hash("replica-" + replica + "#" + virtualNode), replica);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the replica owning the given key.
+     */
+    public int ownerOf(String key) {
+        var entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        try {
+            // only needs to be stable across replicas and well distributed, not cryptographically strong
+            var digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which {@link FederatedCacheNode}s are crawled in a crawl run, based on how often their catalog changes.
+ * <p>
+ * A node starts with the minimum interval. Every crawl that returns the same catalog fingerprint as the previous one
+ * doubles its interval, up to the maximum, and a changed catalog resets it to the minimum. Nodes are identified by
+ * their target URL, which is also the originator of their catalogs in the federated cache. As nodes are only
+ * selected when the crawler runs, the effective minimum interval is the crawler's execution period.
+ * <p>
+ * The scheduler only keeps the fingerprint of the last crawled catalog and the interval of every node, the catalogs
+ * themselves stay in the federated cache. A node without a fingerprint, e.g. because its last crawl failed, is always
+ * due.
+ */
+class CrawlScheduler {
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Map<String, NodeSchedule> schedules = new HashMap<>();
+
+    /**
+     * Constructs {@link CrawlScheduler}
+     *
+     * @param minInterval interval of nodes whose catalog has just changed.
+     * @param maxInterval upper bound of the interval of nodes whose catalog does not change.
+     */
+    CrawlScheduler(Duration minInterval, Duration maxInterval) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("minInterval must be positive and not greater than maxInterval");
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Returns the nodes due for a crawl and schedules their next one. Nodes that are not in the list anymore are
+     * forgotten.
+     *
+     * @param nodes all nodes.
+     * @param now   current time.
+     */
+    public synchronized List<FederatedCacheNode> selectDue(List<FederatedCacheNode> nodes, Instant now) {
+        var urls = nodes.stream().map(FederatedCacheNode::getTargetUrl).collect(Collectors.toSet());
+        schedules.keySet().retainAll(urls);
+        var due = new ArrayList<FederatedCacheNode>();
+        for (var node : nodes) {
+            var schedule = schedules.computeIfAbsent(node.getTargetUrl(), url -> new NodeSchedule(minInterval));
+            if (schedule.lastCrawl == null || schedule.fingerprint == null || !now.isBefore(schedule.lastCrawl.plus(schedule.interval))) {
+                schedule.lastCrawl = now;
+                schedule.awaitingResult = true;
+                due.add(node);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Records the fingerprints of the catalogs returned by the last crawl of the nodes selected by the previous
+     * {@link #selectDue} call. Nodes that were not crawled are ignored.
+     *
+     * @param fingerprints returns the fingerprint of the crawled catalog of a target URL, or null if the node failed to
+     *                     be crawled or the fingerprint is unknown, which keeps the current interval.
+     */
+    public synchronized void recordFingerprints(Function<String, String> fingerprints) {
+        for (var entry : schedules.entrySet()) {
+            var schedule = entry.getValue();
+            if (!schedule.awaitingResult) {
+                continue;
+            }
+            schedule.awaitingResult = false;
+            var hash = fingerprints.apply(entry.getKey());
+            if (hash == null) {
+                schedule.fingerprint = null;
+                continue;
+            }
+            if (hash.equals(schedule.fingerprint)) {
+                var doubled = schedule.interval.multipliedBy(2);
+                schedule.interval = doubled.compareTo(maxInterval) < 0 ? doubled : maxInterval;
+            } else {
+                schedule.interval = minInterval;
+            }
+            schedule.fingerprint = hash;
+        }
+    }
+
+    /**
+     * Returns the current crawl interval of a node, or null if the node is unknown.
+     */
+    @Nullable
+    public synchronized Duration getInterval(String targetUrl) {
+        var schedule = schedules.get(targetUrl);
+        return schedule != null ? schedule.interval : null;
+    }
+
+    /**
+     * Returns the target URLs of the nodes selected by the previous {@link #selectDue} call whose catalog has not been
+     * recorded yet.
+     */
+    public synchronized Set<String> getAwaitingResult() {
+        return schedules.entrySet().stream()
+                .filter(entry -> entry.getValue().awaitingResult)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private static final class NodeSchedule {
+        private Duration interval;
+        private Instant lastCrawl;
+        private String fingerprint;
+        private boolean awaitingResult;
+
+        private NodeSchedule(Duration interval) {
+            this.interval = interval;
+        }
+    }
+}
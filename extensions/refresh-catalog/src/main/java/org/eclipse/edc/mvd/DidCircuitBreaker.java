@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-DID circuit breaker acting as a negative cache for DID documents that cannot be resolved.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit of a DID opens and resolution attempts are rejected
+ * without any outbound request. Once the backoff has elapsed the circuit is half-open and lets a single trial through:
+ * a success closes the circuit again, a failure re-opens it with twice the previous backoff, up to a maximum. A trial
+ * that records no result within the trial timeout, e.g. because it was abandoned, counts as failed, so that the DID
+ * is tried again after the next backoff rather than blocked for good.
+ */
+class DidCircuitBreaker {
+
+    /**
+     * State of the circuit of a single DID.
+     */
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration trialTimeout;
+    private final Clock clock;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs {@link DidCircuitBreaker}
+     *
+     * @param failureThreshold consecutive failures after which the circuit of a DID opens.
+     * @param initialBackoff   time the circuit stays open after it opened for the first time.
+     * @param maxBackoff       upper bound of the time the circuit stays open.
+     * @param trialTimeout     time after which a trial of a half-open circuit that has recorded no result counts as failed.
+     * @param clock            clock
+     */
+    DidCircuitBreaker(int failureThreshold, Duration initialBackoff, Duration maxBackoff, Duration trialTimeout, Clock clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive but was " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.trialTimeout = trialTimeout;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether the DID may be resolved now. Moves an open circuit whose backoff has elapsed to half-open, admitting only
+     * the calling thread.
+     */
+    public boolean tryAcquire(String did) {
+        var circuit = circuits.get(did);
+        return circuit == null || circuit.tryAcquire(clock.instant());
+    }
+
+    public void recordSuccess(String did) {
+        circuits.remove(did);
+    }
+
+    public void recordFailure(String did) {
+        circuits.computeIfAbsent(did, k -> new Circuit()).recordFailure(clock.instant());
+    }
+
+    public State getState(String did) {
+        var circuit = circuits.get(did);
+        return circuit == null ? State.CLOSED : circuit.getState();
+    }
+
+    /**
+     * Returns the state of every DID whose circuit is not closed.
+     */
+    public Map<String, State> getStates() {
+        return circuits.entrySet().stream()
+                .filter(entry -> entry.getValue().getState() != State.CLOSED)
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getState()));
+    }
+
+    private class Circuit {
+        private State state = State.CLOSED;
+        private int failures;
+        private Duration backoff = Duration.ZERO;
+        private Instant retryAt = Instant.MIN;
+        private Instant trialDeadline = Instant.MIN;
+
+        synchronized boolean tryAcquire(Instant now) {
+            if (state == State.HALF_OPEN) {
+                if (now.isBefore(trialDeadline)) {
+                    // a trial is already in flight
+                    return false;
+                }
+                // the trial has not recorded a result in time, e.g. because its resolution was abandoned
+                open(trialDeadline);
+            }
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now.isBefore(retryAt)) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    trialDeadline = now.plus(trialTimeout);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        synchronized void recordFailure(Instant now) {
+            failures++;
+            if (state == State.HALF_OPEN || failures >= failureThreshold) {
+                open(now);
+            }
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        private void open(Instant now) {
+            backoff = backoff.isZero() ? initialBackoff : min(backoff.multipliedBy(2), maxBackoff);
+            retryAt = now.plus(backoff);
+            state = State.OPEN;
+        }
+
+        private Duration min(Duration a, Duration b) {
+            return a.compareTo(b) <= 0 ? a : b;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of resolved {@link DidDocument}s. Entries expire after a fixed time-to-live and the least recently
+ * used entry is evicted once the cache is full.
+ */
+class DidDocumentCache {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructs {@link DidDocumentCache}
+     *
+     * @param ttl        time after which a cached document is resolved again.
+     * @param maxEntries maximum number of cached documents.
+     * @param clock      clock used to expire entries.
+     */
+    DidDocumentCache(Duration ttl, int maxEntries, Clock clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive but was " + maxEntries);
+        }
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > DidDocumentCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached document for the given DID, or null if it is absent or expired.
+     */
+    @Nullable
+    public synchronized DidDocument get(String did) {
+        var entry = entries.get(did);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.expiresAt)) {
+            entries.remove(did);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.document;
+    }
+
+    public synchronized void put(String did, DidDocument document) {
+        entries.put(did, new Entry(document, clock.instant().plus(ttl)));
+    }
+
+    public synchronized void invalidate(String did) {
+        entries.remove(did);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private record Entry(DidDocument document, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures the round-trip time to a participant's DSP endpoint.
+ */
+@FunctionalInterface
+interface EndpointProbe {
+
+    /**
+     * Probes the endpoint once.
+     *
+     * @param url the endpoint's URL.
+     * @return the round-trip time, or a future completed exceptionally if the endpoint is unhealthy.
+     */
+    CompletableFuture<Duration> probe(String url);
+}
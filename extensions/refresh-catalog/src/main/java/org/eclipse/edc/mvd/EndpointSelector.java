@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the endpoint the crawler should use among the DSP endpoints a participant publishes.
+ * <p>
+ * Each endpoint is probed when it has no measurement younger than {@code probeInterval}. Round-trip time and error
+ * rate are tracked as exponentially weighted moving averages, and the endpoint with the lowest latency weighted by its
+ * error rate wins. Endpoints whose last probe failed are only selected if all of them failed, so the crawler fails over
+ * to a healthy endpoint with the next directory refresh.
+ * <p>
+ * The measurements of endpoints that no longer appear in a participant listing are dropped by {@link #prune()}, which
+ * is called once a full listing has been resolved.
+ */
+class EndpointSelector {
+
+    private static final double SMOOTHING = 0.3;
+    private static final double MAX_ERROR_RATE = 0.99;
+
+    private final EndpointProbe probe;
+    private final Duration probeInterval;
+    private final Duration probeTimeout;
+    private final Clock clock;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    // endpoints passed to select() since the last prune
+    private final Set<String> listed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs {@link EndpointSelector}
+     *
+     * @param probe         measures the round-trip time to an endpoint.
+     * @param probeInterval age after which the measurement of an endpoint is renewed.
+     * @param probeTimeout  time after which a probe counts as failed.
+     * @param clock         clock
+     */
+    EndpointSelector(EndpointProbe probe, Duration probeInterval, Duration probeTimeout, Clock clock) {
+        this.probe = probe;
+        this.probeInterval = probeInterval;
+        this.probeTimeout = probeTimeout;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the healthiest, fastest of the given endpoints. A single endpoint is returned without probing it.
+     *
+     * @param endpoints the candidate URLs, in the order of the Did Document, which breaks ties.
+     */
+    public String select(List<String> endpoints) {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        listed.addAll(endpoints);
+        var now = clock.instant();
+        var probes = endpoints.stream()
+                .filter(url -> isStale(url, now))
+                .map(url -> probe.probe(url)
+                        .orTimeout(probeTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .handle((latency, error) -> {
+                            record(url, error == null ? latency : null, now);
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(probes).join();
+
+        // a concurrent prune may drop the measurements of these endpoints at any time, so they are read once, and an
+        // endpoint whose measurement is gone counts as failing
+        var measured = new HashMap<String, EndpointStats>();
+        for (var url : endpoints) {
+            var endpoint = stats.get(url);
+            measured.put(url, endpoint != null ? endpoint : EndpointStats.first(null, now));
+        }
+        return endpoints.stream()
+                .min(Comparator.comparing((String url) -> measured.get(url).isFailing())
+                        .thenComparingDouble(url -> measured.get(url).score()))
+                .orElseThrow();
+    }
+
+    /**
+     * Returns the smoothed round-trip time of an endpoint, or null if it has not been measured yet.
+     */
+    Duration getLatency(String url) {
+        var endpoint = stats.get(url);
+        return endpoint != null && endpoint.latencyNanos != Double.MAX_VALUE ? Duration.ofNanos((long) endpoint.latencyNanos) : null;
+    }
+
+    /**
+     * Drops the measurements of all endpoints not passed to {@link #select(List)} since the previous call, i.e. of the
+     * endpoints that are no longer published by any participant of the latest listing.
+     */
+    void prune() {
+        stats.keySet().retainAll(listed);
+        listed.clear();
+    }
+
+    int size() {
+        return stats.size();
+    }
+
+    private boolean isStale(String url, Instant now) {
+        var endpoint = stats.get(url);
+        return endpoint == null || !endpoint.probedAt.plus(probeInterval).isAfter(now);
+    }
+
+    private void record(String url, Duration latency, Instant now) {
+        stats.compute(url, (k, previous) -> previous == null ? EndpointStats.first(latency, now) : previous.next(latency, now));
+    }
+
+    /**
+     * Immutable measurement of a single endpoint. A failed probe keeps the previous latency.
+     */
+    private static final class EndpointStats {
+        private final double latencyNanos;
+        private final double errorRate;
+        private final boolean failing;
+        private final Instant probedAt;
+
+        private EndpointStats(double latencyNanos, double errorRate, boolean failing, Instant probedAt) {
+            this.latencyNanos = latencyNanos;
+            this.errorRate = errorRate;
+            this.failing = failing;
+            this.probedAt = probedAt;
+        }
+
+        static EndpointStats first(Duration latency, Instant now) {
+            return latency != null ? new EndpointStats(latency.toNanos(), 0, false, now) : new EndpointStats(Double.MAX_VALUE, 1, true, now);
+        }
+
+        EndpointStats next(Duration latency, Instant now) {
+            var error = latency == null ? 1 : 0;
+            var nextErrorRate = SMOOTHING * error + (1 - SMOOTHING) * errorRate;
+            if (latency == null) {
+                return new EndpointStats(latencyNanos, nextErrorRate, true, now);
+            }
+            var nextLatency = latencyNanos == Double.MAX_VALUE ? latency.toNanos() : SMOOTHING * latency.toNanos() + (1 - SMOOTHING) * latencyNanos;
+            return new EndpointStats(nextLatency, nextErrorRate, false, now);
+        }
+
+        boolean isFailing() {
+            return failing;
+        }
+
+        double score() {
+            return latencyNanos / (1 - Math.min(errorRate, MAX_ERROR_RATE));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Payload of a node notification: the participant DID and the DSP endpoint to crawl.
+ */
+public class FederatedCacheNodeDto {
+
+    private final String name;
+    private final String targetUrl;
+    private final List<String> supportedProtocols;
+
+    @JsonCreator
+    public FederatedCacheNodeDto(@JsonProperty("name") String name,
+                                 @JsonProperty("targetUrl") String targetUrl,
+                                 @JsonProperty("supportedProtocols") List<String> supportedProtocols) {
+        this.name = name;
+        this.targetUrl = targetUrl;
+        this.supportedProtocols = supportedProtocols;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    public List<String> getSupportedProtocols() {
+        return supportedProtocols;
+    }
+}
@@ -23,12 +23,14 @@ import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.result.Result;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
 /**
- * Resolves the {@link FederatedCacheNode}s from the Participant's Did Document.
+ * Resolves the {@link FederatedCacheNode}s from the Participant's Did Document. If the participant publishes several
+ * DSP endpoints, the {@link EndpointSelector} picks the one the crawler uses.
  */
 class FederatedCacheNodeResolver {
 
@@ -36,31 +38,92 @@ class FederatedCacheNodeResolver {
     public static final List<String> SUPPORTED_PROTOCOLS = List.of("dataspace-protocol-http");
 
     private final DidResolverRegistry resolver;
+    private final DidDocumentCache cache;
+    private final DidCircuitBreaker circuitBreaker;
+    private final EndpointSelector endpointSelector;
+    private final RefreshCatalogMetrics metrics;
     private final Monitor monitor;
 
-    FederatedCacheNodeResolver(DidResolverRegistry resolver, Monitor monitor) {
+    FederatedCacheNodeResolver(DidResolverRegistry resolver, DidDocumentCache cache, DidCircuitBreaker circuitBreaker, EndpointSelector endpointSelector,
+                               RefreshCatalogMetrics metrics, Monitor monitor) {
         this.resolver = resolver;
+        this.cache = cache;
+        this.circuitBreaker = circuitBreaker;
+        this.endpointSelector = endpointSelector;
+        this.metrics = metrics;
         this.monitor = monitor;
     }
 
     public Result<FederatedCacheNode> toFederatedCacheNode(ParticipantDto participant) {
         var did = participant.getDid();
-        monitor.debug(format("Resolving Did Document for did %s.", did));
-        var didDocument = resolver.resolve(did);
+        if (!circuitBreaker.tryAcquire(did)) {
+            monitor.debug(() -> format("Skipping resolution of DID Document for %s, circuit is %s.", did, circuitBreaker.getState(did)));
+            return Result.failure("Can't resolve Did Document for participant: " + did);
+        }
+        var didDocument = resolveDidDocument(did);
         if (didDocument.failed()) {
+            circuitBreaker.recordFailure(did);
             monitor.severe(() -> format("Failed to resolve DID Document for %s. %s", did, didDocument.getFailureDetail()));
             return Result.failure("Can't resolve Did Document for participant: " + did);
         }
-        return getUrl(didDocument.getContent())
-                .map(url -> Result.success(new FederatedCacheNode(didDocument.getContent().getId(), url, SUPPORTED_PROTOCOLS)))
-                .orElseGet(() -> Result.failure(format("Can't resolve Did Document for participant: %s", did)));
+        circuitBreaker.recordSuccess(did);
+        var endpoints = getUrls(didDocument.getContent());
+        if (endpoints.isEmpty()) {
+            return Result.failure(format("Can't resolve Did Document for participant: %s", did));
+        }
+        return Result.success(new FederatedCacheNode(didDocument.getContent().getId(), endpointSelector.select(endpoints), SUPPORTED_PROTOCOLS));
+    }
+
+    /**
+     * Drops the cached Did Document of a participant, so that it is resolved again on the next lookup.
+     *
+     * @param did the participant's DID.
+     */
+    public void invalidate(String did) {
+        cache.invalidate(did);
+    }
+
+    /**
+     * Drops the endpoint measurements of participants that were not resolved since the previous call, to be called
+     * once a full participant listing has been resolved.
+     */
+    public void pruneEndpoints() {
+        endpointSelector.prune();
+    }
+
+    /**
+     * Returns the circuit state of every participant whose Did Document currently fails to resolve.
+     */
+    public Map<String, DidCircuitBreaker.State> getCircuitStates() {
+        return circuitBreaker.getStates();
+    }
+
+    private Result<DidDocument> resolveDidDocument(String did) {
+        var cached = cache.get(did);
+        if (cached != null) {
+            return Result.success(cached);
+        }
+        monitor.debug(format("Resolving Did Document for did %s.", did));
+        var didDocument = metrics.timeDidResolution(() -> {
+            try {
+                return resolver.resolve(did);
+            } catch (Exception e) {
+                return Result.<DidDocument>failure(e.getMessage());
+            }
+        });
+        metrics.didResolved(didDocument.succeeded());
+        if (didDocument.succeeded()) {
+            cache.put(did, didDocument.getContent());
+        }
+        return didDocument;
     }
 
-    private Optional<String> getUrl(DidDocument didDocument) {
+    private List<String> getUrls(DidDocument didDocument) {
         return didDocument
                 .getService().stream()
                 .filter(service -> service.getType().equals(IDS_MESSAGING))
                 .map(Service::getServiceEndpoint)
-                .findFirst();
+                .distinct()
+                .collect(Collectors.toList());
     }
 }
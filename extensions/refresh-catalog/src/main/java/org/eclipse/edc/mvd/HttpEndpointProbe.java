@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static java.lang.String.format;
+
+/**
+ * {@link EndpointProbe} sending a {@code HEAD} request to the endpoint. Any response below 500 counts as healthy, as
+ * DSP endpoints reject unauthenticated requests but still prove that the connector is up.
+ */
+class HttpEndpointProbe implements EndpointProbe {
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    HttpEndpointProbe(HttpClient httpClient, Duration timeout) {
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public CompletableFuture<Duration> probe(String url) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .timeout(timeout)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        var start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 500) {
+                        throw new IllegalStateException(format("Endpoint %s responded with status %d", url, response.statusCode()));
+                    }
+                    return Duration.ofNanos(System.nanoTime() - start);
+                });
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable set of {@link FederatedCacheNode}s indexed by participant DID, which is the node name. Keeps the insertion
+ * order, so that the node list stays stable across updates.
+ */
+final class NodeIndex {
+
+    static final NodeIndex EMPTY = new NodeIndex(Map.of());
+
+    private final Map<String, FederatedCacheNode> byDid;
+    private final List<FederatedCacheNode> nodes;
+
+    private NodeIndex(Map<String, FederatedCacheNode> byDid) {
+        this.byDid = byDid;
+        this.nodes = List.copyOf(byDid.values());
+    }
+
+    static NodeIndex of(List<FederatedCacheNode> nodes) {
+        var byDid = new LinkedHashMap<String, FederatedCacheNode>();
+        nodes.forEach(node -> byDid.put(node.getName(), node));
+        return new NodeIndex(Collections.unmodifiableMap(byDid));
+    }
+
+    /**
+     * Returns an index containing the given node, replacing any node with the same DID.
+     */
+    NodeIndex put(FederatedCacheNode node) {
+        var byDid = new LinkedHashMap<>(this.byDid);
+        byDid.put(node.getName(), node);
+        return new NodeIndex(Collections.unmodifiableMap(byDid));
+    }
+
+    /**
+     * Returns an index without the node of the given DID.
+     */
+    NodeIndex remove(String did) {
+        if (!byDid.containsKey(did)) {
+            return this;
+        }
+        var byDid = new LinkedHashMap<>(this.byDid);
+        byDid.remove(did);
+        return new NodeIndex(Collections.unmodifiableMap(byDid));
+    }
+
+    @Nullable
+    FederatedCacheNode get(String did) {
+        return byDid.get(did);
+    }
+
+    List<FederatedCacheNode> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns whether two nodes have the same name, target URL and protocols, as {@link FederatedCacheNode} does not
+     * override equals.
+     */
+    static boolean sameNode(FederatedCacheNode a, FederatedCacheNode b) {
+        return Objects.equals(a.getName(), b.getName()) && Objects.equals(a.getTargetUrl(), b.getTargetUrl()) &&
+                Objects.equals(a.getSupportedProtocols(), b.getSupportedProtocols());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+
+import java.util.List;
+
+/**
+ * Local endpoint through which participant changes are pushed to the {@link SnapshotNodeDirectory}, instead of
+ * waiting for the next full listing of the Registration Service.
+ */
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+@Path("/federatedcatalog/nodes")
+public class NodeNotificationApiController {
+
+    private final SnapshotNodeDirectory directory;
+
+    NodeNotificationApiController(SnapshotNodeDirectory directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds or updates the node of a participant.
+     */
+    @PUT
+    public void upsertNode(FederatedCacheNodeDto node) {
+        if (node == null || isBlank(node.getName()) || isBlank(node.getTargetUrl())) {
+            throw new InvalidRequestException("name and targetUrl are mandatory");
+        }
+        var protocols = node.getSupportedProtocols() != null ? node.getSupportedProtocols() : FederatedCacheNodeResolver.SUPPORTED_PROTOCOLS;
+        directory.insert(new FederatedCacheNode(node.getName(), node.getTargetUrl(), List.copyOf(protocols)));
+    }
+
+    /**
+     * Removes the node of a participant.
+     */
+    @DELETE
+    @Path("{did}")
+    public void removeNode(@PathParam("did") String did) {
+        directory.remove(did);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
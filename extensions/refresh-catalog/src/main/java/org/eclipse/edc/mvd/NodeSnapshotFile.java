@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Persists a list of {@link FederatedCacheNode}s in a compact binary file, so that a restarted connector can start
+ * crawling before the first directory refresh has completed. The file is replaced atomically on every write.
+ */
+class NodeSnapshotFile {
+
+    private static final int MAGIC = 0x4D56444E; // "MVDN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    // two empty strings and no protocols
+    private static final int MIN_NODE_BYTES = 6;
+    private static final int MAX_PROTOCOLS = 0xFFFF;
+
+    private final Path path;
+    private final Monitor monitor;
+
+    NodeSnapshotFile(Path path, Monitor monitor) {
+        this.path = path;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Reads the persisted nodes. Returns an empty optional if there is no snapshot or it cannot be read.
+     * <p>
+     * The counts read from the file are not trusted to size anything: the node count is checked against the size of
+     * the file, and a protocol count beyond the end of the file fails the read.
+     */
+    public Optional<List<FederatedCacheNode>> read() {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            var maxCount = (Files.size(path) - HEADER_BYTES) / MIN_NODE_BYTES;
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                monitor.warning(format("Ignoring federated cache node snapshot %s with unknown format", path));
+                return Optional.empty();
+            }
+            var count = in.readInt();
+            if (count < 0 || count > maxCount) {
+                monitor.warning(format("Ignoring corrupt federated cache node snapshot %s", path));
+                return Optional.empty();
+            }
+            var nodes = new ArrayList<FederatedCacheNode>();
+            for (var i = 0; i < count; i++) {
+                var name = in.readUTF();
+                var targetUrl = in.readUTF();
+                var protocolCount = in.readUnsignedShort();
+                var protocols = new ArrayList<String>();
+                for (var p = 0; p < protocolCount; p++) {
+                    protocols.add(in.readUTF());
+                }
+                nodes.add(new FederatedCacheNode(name, targetUrl, protocols));
+            }
+            return Optional.of(nodes);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            monitor.warning(format("Failed to read federated cache node snapshot %s", path), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the persisted snapshot with the given nodes. The new contents are forced to disk before they replace
+     * the previous snapshot, so a crash never leaves a renamed but empty file behind. Nodes with more protocols than
+     * the format can count are rejected and the previous snapshot is kept.
+     */
+    public void write(List<FederatedCacheNode> nodes) {
+        for (var node : nodes) {
+            if (node.getSupportedProtocols().size() > MAX_PROTOCOLS) {
+                monitor.warning(format("Not writing federated cache node snapshot %s: node %s supports %d protocols, at most %d can be stored",
+                        path, node.getName(), node.getSupportedProtocols().size(), MAX_PROTOCOLS));
+                return;
+            }
+        }
+        var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (var channel = FileChannel.open(tmp, WRITE, CREATE, TRUNCATE_EXISTING)) {
+                var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(nodes.size());
+                for (var node : nodes) {
+                    out.writeUTF(node.getName());
+                    out.writeUTF(node.getTargetUrl());
+                    var protocols = node.getSupportedProtocols();
+                    out.writeShort(protocols.size());
+                    for (var protocol : protocols) {
+                        out.writeUTF(protocol);
+                    }
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            monitor.warning(format("Failed to write federated cache node snapshot %s", path), e);
+        }
+    }
+}
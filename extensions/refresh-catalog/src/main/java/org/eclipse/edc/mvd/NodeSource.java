@@ -0,0 +1,33 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.result.Result;
+
+import java.util.List;
+
+/**
+ * Builds the complete list of {@link FederatedCacheNode}s of the dataspace.
+ */
+@FunctionalInterface
+interface NodeSource {
+
+    /**
+     * Returns the nodes of all participants that could be resolved, or a failure if the participants could not be
+     * listed.
+     */
+    Result<List<FederatedCacheNode>> fetch();
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * {@link NodeSource} reading the participants together with their DSP endpoints from the participant endpoints API of
+ * the Registration Service, instead of resolving the Did Document of every participant.
+ * <p>
+ * The request carries the entity tag of the previous response, so an unchanged dataspace costs a single
+ * {@code 304 Not Modified} round trip and the previous participants are reused. The endpoint of each participant is
+ * selected again on every fetch, so that the crawler still fails over between endpoints.
+ */
+class ParticipantEndpointsNodeSource implements NodeSource {
+
+    private static final String PARTICIPANT_ENDPOINTS_PATH = "/registry/participant-endpoints";
+
+    private final HttpClient httpClient;
+    private final RegistrationServiceRequests requests;
+    private final ObjectMapper mapper;
+    private final EndpointSelector endpointSelector;
+    private String entityTag;
+    private List<ParticipantEndpoints> participants;
+
+    /**
+     * Constructs {@link ParticipantEndpointsNodeSource}
+     *
+     * @param httpClient       client sending the request.
+     * @param requests         builds the authenticated request.
+     * @param mapper           mapper parsing the response.
+     * @param endpointSelector picks the endpoint of participants publishing several.
+     */
+    ParticipantEndpointsNodeSource(HttpClient httpClient, RegistrationServiceRequests requests, ObjectMapper mapper, EndpointSelector endpointSelector) {
+        this.httpClient = httpClient;
+        this.requests = requests;
+        this.mapper = mapper;
+        this.endpointSelector = endpointSelector;
+    }
+
+    @Override
+    public synchronized Result<List<FederatedCacheNode>> fetch() {
+        var request = requests.get(PARTICIPANT_ENDPOINTS_PATH);
+        if (request.failed()) {
+            return Result.failure(request.getFailureDetail());
+        }
+        if (entityTag != null && participants != null) {
+            request.getContent().header("If-None-Match", entityTag);
+        }
+        try {
+            var response = httpClient.send(request.getContent().build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (var body = response.body()) {
+                if (response.statusCode() == 304 && participants != null) {
+                    return Result.success(toNodes(participants));
+                }
+                if (response.statusCode() != 200) {
+                    return Result.failure(format("Listing participant endpoints failed with status %d", response.statusCode()));
+                }
+                var parsed = parse(body);
+                if (parsed.failed()) {
+                    return Result.failure(parsed.getFailureDetail());
+                }
+                participants = parsed.getContent();
+                entityTag = response.headers().firstValue("ETag").orElse(null);
+                return Result.success(toNodes(participants));
+            }
+        } catch (IOException e) {
+            return Result.failure("Listing participant endpoints failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure("Interrupted while listing participant endpoints");
+        }
+    }
+
+    private List<FederatedCacheNode> toNodes(List<ParticipantEndpoints> participants) {
+        var nodes = participants.stream()
+                .map(participant -> new FederatedCacheNode(participant.did, endpointSelector.select(participant.endpoints), FederatedCacheNodeResolver.SUPPORTED_PROTOCOLS))
+                .collect(Collectors.toList());
+        endpointSelector.prune();
+        return nodes;
+    }
+
+    private Result<List<ParticipantEndpoints>> parse(InputStream body) throws IOException {
+        try (var parser = mapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return Result.failure("Listing participant endpoints failed: expected a JSON array");
+            }
+            var result = new ArrayList<ParticipantEndpoints>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode entry = mapper.readTree(parser);
+                var endpoints = new ArrayList<String>();
+                entry.path("endpoints").forEach(endpoint -> endpoints.add(endpoint.asText()));
+                // participants whose Did Document publishes no DSP endpoint cannot be crawled
+                if (!endpoints.isEmpty()) {
+                    result.add(new ParticipantEndpoints(entry.path("did").asText(), endpoints));
+                }
+            }
+            return Result.success(result);
+        }
+    }
+
+    private static final class ParticipantEndpoints {
+        private final String did;
+        private final List<String> endpoints;
+
+        private ParticipantEndpoints(String did, List<String> endpoints) {
+            this.did = did;
+            this.endpoints = endpoints;
+        }
+    }
+}
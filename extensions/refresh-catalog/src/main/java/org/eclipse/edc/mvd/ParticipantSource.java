@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.registration.client.RegistryApiClient;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.spi.result.Result;
+
+import java.util.function.Consumer;
+
+/**
+ * Lists the participants of the dataspace.
+ */
+@FunctionalInterface
+interface ParticipantSource {
+
+    /**
+     * Passes every participant to the consumer, possibly before all of them have been received.
+     *
+     * @param consumer receives the participants in the order of the Registration Service.
+     * @return the number of participants, or a failure if they could not be listed completely.
+     */
+    Result<Integer> forEach(Consumer<ParticipantDto> consumer);
+
+    /**
+     * Creates a source listing the participants with a single {@link RegistryApiClient#listParticipants()} call.
+     */
+    static ParticipantSource of(RegistryApiClient apiClient) {
+        return consumer -> apiClient.listParticipants()
+                .map(participants -> {
+                    participants.forEach(consumer);
+                    return Result.success(participants.size());
+                })
+                .orElse(apiFailure -> Result.failure(apiFailure.getFailureDetail()));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node inserts and removals pushed to a directory ahead of the Registration Service. They are overlaid on every full
+ * participant listing until a listing confirms them, i.e. lists the inserted node or no longer lists the removed one.
+ * As the Registration Service may lag behind the pushed changes, a listing contradicting a change only wins once the
+ * reconciliation period since the change was pushed has elapsed.
+ */
+class PendingNodeChanges {
+
+    static final Duration DEFAULT_RECONCILIATION_PERIOD = Duration.ofMinutes(5);
+
+    private final Duration reconciliationPeriod;
+    private final Clock clock;
+    // latest change pushed per participant DID
+    private final Map<String, Change> changes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs {@link PendingNodeChanges}
+     *
+     * @param reconciliationPeriod time a change is kept while listings contradict it.
+     * @param clock                clock
+     */
+    PendingNodeChanges(Duration reconciliationPeriod, Clock clock) {
+        this.reconciliationPeriod = reconciliationPeriod;
+        this.clock = clock;
+    }
+
+    /**
+     * Records the insert or update of the node of a participant.
+     */
+    void insert(FederatedCacheNode node) {
+        changes.put(node.getName(), new Change(node, clock.instant()));
+    }
+
+    /**
+     * Records the removal of the node of a participant.
+     *
+     * @param did the participant's DID.
+     */
+    void remove(String did) {
+        changes.put(did, new Change(null, clock.instant()));
+    }
+
+    /**
+     * Applies the pending changes to a full listing, and drops the changes the listing confirms or that have been
+     * contradicted for longer than the reconciliation period.
+     *
+     * @param listed the nodes of all participants known to the Registration Service.
+     * @return the listed nodes with the pending changes applied.
+     */
+    List<FederatedCacheNode> reconcile(List<FederatedCacheNode> listed) {
+        if (changes.isEmpty()) {
+            return listed;
+        }
+        var now = clock.instant();
+        var index = NodeIndex.of(listed);
+        for (var entry : changes.entrySet()) {
+            var did = entry.getKey();
+            var change = entry.getValue();
+            var listedNode = index.get(did);
+            var confirmed = change.node == null ? listedNode == null : listedNode != null && NodeIndex.sameNode(listedNode, change.node);
+            if (confirmed || !now.isBefore(change.pushedAt.plus(reconciliationPeriod))) {
+                changes.remove(did, change);
+            } else {
+                index = change.node == null ? index.remove(did) : index.put(change.node);
+            }
+        }
+        return index.nodes();
+    }
+
+    int size() {
+        return changes.size();
+    }
+
+    private static final class Change {
+        // null for a removal
+        @Nullable
+        private final FederatedCacheNode node;
+        private final Instant pushedAt;
+
+        private Change(@Nullable FederatedCacheNode node, Instant pushedAt) {
+            this.node = node;
+            this.pushedAt = pushedAt;
+        }
+    }
+}
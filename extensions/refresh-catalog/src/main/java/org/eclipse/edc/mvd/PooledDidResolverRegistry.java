@@ -0,0 +1,53 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.spi.result.Result;
+
+/**
+ * {@link DidResolverRegistry} of the refresh-catalog extension, resolving did:web DIDs with a
+ * {@link PooledWebDidResolver} and every other DID method with the registry of the runtime.
+ */
+class PooledDidResolverRegistry implements DidResolverRegistry {
+
+    private static final String DID_PREFIX = "did:";
+
+    private final PooledWebDidResolver webResolver;
+    private final DidResolverRegistry fallback;
+
+    PooledDidResolverRegistry(PooledWebDidResolver webResolver, DidResolverRegistry fallback) {
+        this.webResolver = webResolver;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Registers the resolver with the registry of the runtime.
+     */
+    @Override
+    public void register(DidResolver resolver) {
+        fallback.register(resolver);
+    }
+
+    @Override
+    public Result<DidDocument> resolve(String didKey) {
+        if (didKey != null && didKey.startsWith(DID_PREFIX + webResolver.getMethod() + ":")) {
+            return webResolver.resolve(didKey);
+        }
+        return fallback.resolve(didKey);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import static java.lang.String.format;
+
+/**
+ * Resolves did:web Did Documents with a dedicated {@link OkHttpClient}, whose connection pool keeps the connections to
+ * the hosting domains alive between lookups and multiplexes concurrent lookups over HTTP/2, so that a directory
+ * refresh does not pay connection and TLS setup for every participant.
+ * <p>
+ * Lookups are synchronous calls, which the limits of the client's dispatcher do not apply to, so the number of
+ * concurrent lookups per host is limited by the resolver itself.
+ */
+class PooledWebDidResolver implements DidResolver {
+
+    private static final String DID_METHOD = "web";
+    private static final String DID_WEB_PREFIX = "did:web:";
+    private static final String WELL_KNOWN_SEGMENT = ".well-known";
+    private static final String DID_DOCUMENT_FILE = "did.json";
+
+    private final OkHttpClient httpClient;
+    private final boolean useHttps;
+    private final ObjectMapper mapper;
+    private final int maxRequestsPerHost;
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs {@link PooledWebDidResolver}
+     *
+     * @param httpClient         client fetching the Did Documents.
+     * @param useHttps           whether Did Documents are fetched over https rather than http.
+     * @param mapper             mapper deserializing the Did Documents.
+     * @param maxRequestsPerHost maximum number of concurrent lookups to a single host.
+     */
+    PooledWebDidResolver(OkHttpClient httpClient, boolean useHttps, ObjectMapper mapper, int maxRequestsPerHost) {
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("maxRequestsPerHost must be positive but was " + maxRequestsPerHost);
+        }
+        this.httpClient = httpClient;
+        this.useHttps = useHttps;
+        this.mapper = mapper;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    @Override
+    public String getMethod() {
+        return DID_METHOD;
+    }
+
+    @Override
+    public Result<DidDocument> resolve(String did) {
+        var url = toUrl(did, useHttps);
+        if (url.failed()) {
+            return Result.failure(url.getFailureDetail());
+        }
+        var request = new Request.Builder().url(url.getContent()).get().build();
+        var permits = permitsByHost.computeIfAbsent(request.url().host() + ":" + request.url().port(), host -> new Semaphore(maxRequestsPerHost));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure(format("Interrupted while fetching Did Document %s", url.getContent()));
+        }
+        try (var response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                return Result.failure(format("Fetching Did Document %s failed with status %d", url.getContent(), response.code()));
+            }
+            var body = response.body();
+            if (body == null) {
+                return Result.failure(format("Did Document %s is empty", url.getContent()));
+            }
+            return Result.success(mapper.readValue(body.byteStream(), DidDocument.class));
+        } catch (IOException e) {
+            return Result.failure(format("Fetching Did Document %s failed: %s", url.getContent(), e.getMessage()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Converts a did:web DID to the URL of its Did Document, e.g. {@code did:web:example.com:user:alice} to
+     * {@code https://example.com/user/alice/did.json} and {@code did:web:example.com} to
+     * {@code https://example.com/.well-known/did.json}. Decoded path segments are encoded again, so that a {@code /},
+     * {@code ?} or {@code #} in the DID cannot change the structure of the URL.
+     */
+    static Result<HttpUrl> toUrl(String did, boolean useHttps) {
+        if (did == null || !did.startsWith(DID_WEB_PREFIX) || did.length() == DID_WEB_PREFIX.length()) {
+            return Result.failure("Not a did:web DID: " + did);
+        }
+        var segments = did.substring(DID_WEB_PREFIX.length()).split(":");
+        try {
+            var url = new HttpUrl.Builder().scheme(useHttps ? "https" : "http");
+            var host = URLDecoder.decode(segments[0], StandardCharsets.UTF_8);
+            var portSeparator = host.lastIndexOf(':');
+            if (portSeparator > host.lastIndexOf(']')) {
+                url.port(Integer.parseInt(host.substring(portSeparator + 1)));
+                host = host.substring(0, portSeparator);
+            }
+            url.host(host);
+            if (segments.length == 1) {
+                url.addPathSegment(WELL_KNOWN_SEGMENT);
+            } else {
+                Arrays.stream(segments, 1, segments.length).forEach(segment -> url.addPathSegment(URLDecoder.decode(segment, StandardCharsets.UTF_8)));
+            }
+            return Result.success(url.addPathSegment(DID_DOCUMENT_FILE).build());
+        } catch (IllegalArgumentException e) {
+            // malformed percent-escapes, invalid port or a host the client rejects
+            return Result.failure(format("Malformed did:web DID %s: %s", did, e.getMessage()));
+        }
+    }
+}
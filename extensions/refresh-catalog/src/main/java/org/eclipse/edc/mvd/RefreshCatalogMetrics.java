@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the refresh-catalog extension.
+ */
+class RefreshCatalogMetrics {
+
+    private static final String PREFIX = "refresh.catalog.";
+
+    private final MeterRegistry registry;
+    private final Timer getAllTimer;
+    private final Timer refreshTimer;
+    private final Timer listParticipantsTimer;
+    private final Timer didResolutionTimer;
+    private final Counter didResolutionSuccess;
+    private final Counter didResolutionFailure;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    RefreshCatalogMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        getAllTimer = Timer.builder(PREFIX + "directory.getall")
+                .description("Time spent in RegistrationServiceNodeDirectory.getAll()")
+                .register(registry);
+        refreshTimer = Timer.builder(PREFIX + "directory.refresh")
+                .description("Time spent listing the participants and resolving their nodes")
+                .register(registry);
+        listParticipantsTimer = Timer.builder(PREFIX + "registry.list.participants")
+                .description("Time spent listing the participants from the Registration Service")
+                .register(registry);
+        didResolutionTimer = Timer.builder(PREFIX + "did.resolution")
+                .description("Latency of resolving a single participant DID document")
+                .publishPercentileHistogram()
+                .register(registry);
+        didResolutionSuccess = Counter.builder(PREFIX + "did.resolution.results")
+                .tag("outcome", "success")
+                .register(registry);
+        didResolutionFailure = Counter.builder(PREFIX + "did.resolution.results")
+                .tag("outcome", "failure")
+                .register(registry);
+        Gauge.builder(PREFIX + "directory.nodes", nodeCount, AtomicInteger::get)
+                .description("Number of nodes returned by the last directory refresh")
+                .register(registry);
+    }
+
+    /**
+     * Creates metrics that are not exported anywhere.
+     */
+    static RefreshCatalogMetrics disabled() {
+        return new RefreshCatalogMetrics(new CompositeMeterRegistry());
+    }
+
+    public <T> T timeGetAll(Supplier<T> supplier) {
+        return getAllTimer.record(supplier);
+    }
+
+    public <T> T timeRefresh(Supplier<T> supplier) {
+        return refreshTimer.record(supplier);
+    }
+
+    public <T> T timeListParticipants(Supplier<T> supplier) {
+        return listParticipantsTimer.record(supplier);
+    }
+
+    public <T> T timeDidResolution(Supplier<T> supplier) {
+        return didResolutionTimer.record(supplier);
+    }
+
+    public void didResolved(boolean succeeded) {
+        (succeeded ? didResolutionSuccess : didResolutionFailure).increment();
+    }
+
+    public void nodesResolved(int count) {
+        nodeCount.set(count);
+    }
+
+    /**
+     * Exposes the hit and miss counters of the DID document cache.
+     */
+    public void bindDidCache(DidDocumentCache cache) {
+        FunctionCounter.builder(PREFIX + "did.cache.requests", cache, DidDocumentCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "did.cache.requests", cache, DidDocumentCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder(PREFIX + "did.cache.size", cache, DidDocumentCache::size)
+                .register(registry);
+    }
+
+    /**
+     * Exposes the number of DIDs whose circuit is currently not closed.
+     */
+    public void bindCircuitBreaker(DidCircuitBreaker circuitBreaker) {
+        Gauge.builder(PREFIX + "did.circuits.open", circuitBreaker, breaker -> breaker.getStates().size())
+                .register(registry);
+    }
+}
@@ -18,54 +18,151 @@ import org.eclipse.edc.catalog.spi.FederatedCacheNode;
 import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
 import org.eclipse.edc.registration.client.RegistryApiClient;
 import org.eclipse.edc.spi.monitor.Monitor;
-import org.eclipse.edc.spi.result.AbstractResult;
+import org.eclipse.edc.spi.result.Result;
 
+import java.time.Clock;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Federated cache directory using Registration Service as backend.
  */
 public class RegistrationServiceNodeDirectory implements FederatedCacheNodeDirectory {
 
-    private final RegistryApiClient apiClient;
-    private final FederatedCacheNodeResolver resolver;
+    private final NodeSource nodeSource;
+    private final RefreshCatalogMetrics metrics;
     private final Monitor monitor;
+    private final PendingNodeChanges pendingChanges;
+    private final AtomicReference<CompletableFuture<Result<List<FederatedCacheNode>>>> inFlightRefresh = new AtomicReference<>();
 
     /**
-     * Constructs {@link RegistrationServiceNodeDirectory}
+     * Constructs {@link RegistrationServiceNodeDirectory} resolving the participants sequentially.
      *
      * @param monitor   monitor
      * @param apiClient RegistrationService API client.
      * @param resolver  gets {@link FederatedCacheNode} from {@link org.eclipse.edc.registration.client.model.ParticipantDto}.
      */
     public RegistrationServiceNodeDirectory(RegistryApiClient apiClient, FederatedCacheNodeResolver resolver, Monitor monitor) {
-        this.apiClient = apiClient;
-        this.resolver = resolver;
+        this(apiClient, BulkNodeResolver.sequential(resolver, monitor), RefreshCatalogMetrics.disabled(), monitor);
+    }
+
+    /**
+     * Constructs {@link RegistrationServiceNodeDirectory}
+     *
+     * @param monitor   monitor
+     * @param apiClient RegistrationService API client.
+     * @param resolver  gets the {@link FederatedCacheNode}s of all participants.
+     * @param metrics   records the duration and outcome of the refreshes.
+     */
+    RegistrationServiceNodeDirectory(RegistryApiClient apiClient, BulkNodeResolver resolver, RefreshCatalogMetrics metrics, Monitor monitor) {
+        this(ParticipantSource.of(apiClient), resolver, new PendingNodeChanges(PendingNodeChanges.DEFAULT_RECONCILIATION_PERIOD, Clock.systemUTC()), metrics, monitor);
+    }
+
+    /**
+     * Constructs {@link RegistrationServiceNodeDirectory}
+     *
+     * @param monitor        monitor
+     * @param participants   lists the participants, each participant is resolved as soon as it has been listed.
+     * @param resolver       gets the {@link FederatedCacheNode}s of all participants.
+     * @param pendingChanges node changes pushed ahead of the Registration Service.
+     * @param metrics        records the duration and outcome of the refreshes.
+     */
+    RegistrationServiceNodeDirectory(ParticipantSource participants, BulkNodeResolver resolver, PendingNodeChanges pendingChanges, RefreshCatalogMetrics metrics, Monitor monitor) {
+        this(() -> listAndResolve(participants, resolver, metrics), pendingChanges, metrics, monitor);
+    }
+
+    /**
+     * Constructs {@link RegistrationServiceNodeDirectory}
+     *
+     * @param monitor        monitor
+     * @param nodeSource     builds the nodes of all participants.
+     * @param pendingChanges node changes pushed ahead of the Registration Service.
+     * @param metrics        records the duration and outcome of the refreshes.
+     */
+    RegistrationServiceNodeDirectory(NodeSource nodeSource, PendingNodeChanges pendingChanges, RefreshCatalogMetrics metrics, Monitor monitor) {
+        this.nodeSource = nodeSource;
+        this.pendingChanges = pendingChanges;
+        this.metrics = metrics;
         this.monitor = monitor;
     }
 
     @Override
     public List<FederatedCacheNode> getAll() {
+        var nodes = metrics.timeGetAll(this::refresh);
+        return nodes.succeeded() ? nodes.getContent() : List.of();
+    }
+
+    /**
+     * Lists the participants from the Registration Service and resolves their {@link FederatedCacheNode}s, with the
+     * pending pushed changes applied. Contrary to {@link #getAll()}, a failure to reach the Registration Service is
+     * reported instead of returning an empty list. Concurrent callers share a single in-flight refresh and all receive
+     * its result.
+     *
+     * @return the resolved nodes, or a failure if the participants could not be listed.
+     */
+    Result<List<FederatedCacheNode>> refresh() {
+        var refresh = new CompletableFuture<Result<List<FederatedCacheNode>>>();
+        var inFlight = inFlightRefresh.compareAndExchange(null, refresh);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+
+        Result<List<FederatedCacheNode>> result = Result.failure("Refresh did not complete");
+        try {
+            result = metrics.timeRefresh(this::fetchNodes);
+            return result;
+        } finally {
+            // callers arriving after this point trigger a new refresh rather than receiving this one
+            inFlightRefresh.set(null);
+            refresh.complete(result);
+        }
+    }
+
+    private Result<List<FederatedCacheNode>> fetchNodes() {
         try {
-            return apiClient.listParticipants()
-                    .map(list -> list.stream()
-                            .map(resolver::toFederatedCacheNode)
-                            .filter(AbstractResult::succeeded)
-                            .map(AbstractResult::getContent)
-                            .collect(Collectors.toList()))
-                    .orElse(apiFailure -> {
-                        monitor.warning("RegistrationServiceNodeDirectory.getAll() failed " + apiFailure.getFailureDetail());
-                        return List.of();
-                    });
+            var nodes = nodeSource.fetch();
+            if (nodes.failed()) {
+                monitor.warning("RegistrationServiceNodeDirectory.getAll() failed " + nodes.getFailureDetail());
+                return nodes;
+            }
+            metrics.nodesResolved(nodes.getContent().size());
+            return Result.success(pendingChanges.reconcile(nodes.getContent()));
         } catch (Exception ex) {
             monitor.severe("RegistrationServiceNodeDirectory.getAll() threw an exception: " + ex.getMessage());
-            return List.of();
+            return Result.failure("Listing participants failed: " + ex.getMessage());
         }
     }
 
+    private static Result<List<FederatedCacheNode>> listAndResolve(ParticipantSource participants, BulkNodeResolver resolver, RefreshCatalogMetrics metrics) {
+        var batch = resolver.newBatch();
+        // with a streaming source, listing includes the time the resolver throttles the listing
+        var listed = metrics.timeListParticipants(() -> participants.forEach(batch::add));
+        if (listed.failed()) {
+            return Result.failure(listed.getFailureDetail());
+        }
+        var nodes = batch.nodes();
+        resolver.pruneEndpoints();
+        return Result.success(nodes);
+    }
+
+    /**
+     * Adds a node to the results of {@link #getAll()}, replacing the listed node of the same participant, until the
+     * Registration Service lists the same node or the reconciliation period has elapsed.
+     */
     @Override
     public void insert(FederatedCacheNode federatedCacheNode) {
-        throw new UnsupportedOperationException();
+        monitor.debug("Node " + federatedCacheNode.getName() + " pushed, it is kept until the Registration Service lists it");
+        pendingChanges.insert(federatedCacheNode);
+    }
+
+    /**
+     * Removes the node of a participant from the results of {@link #getAll()}, until the Registration Service no longer
+     * lists it or the reconciliation period has elapsed.
+     *
+     * @param did the participant's DID.
+     */
+    void remove(String did) {
+        pendingChanges.remove(did);
     }
 }
@@ -14,18 +14,37 @@
 
 package org.eclipse.edc.mvd;
 
+import io.micrometer.core.instrument.Metrics;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+import org.eclipse.edc.catalog.spi.FederatedCacheStore;
+import org.eclipse.edc.connector.api.management.configuration.ManagementApiConfiguration;
 import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
 import org.eclipse.edc.registration.client.RegistryApiClientFactory;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.iam.IdentityService;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.web.spi.WebService;
 
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
 
 /**
  * Extension to set up federated cache directory using Registration Service API as backend.
@@ -35,6 +54,127 @@ public class RegistrationServiceNodeDirectoryExtension implements ServiceExtensi
     @Setting
     private static final String REGISTRATION_SERVICE_API_URL = "registration.service.api.url";
 
+    @Setting(value = "Time in milliseconds after which connecting to the Registration Service fails. Only applies to the streaming and participant endpoints sources.", type = "long")
+    private static final String REGISTRATION_SERVICE_CONNECT_TIMEOUT_MILLIS = "refresh.catalog.registration.service.connect.timeout.millis";
+    private static final long DEFAULT_REGISTRATION_SERVICE_CONNECT_TIMEOUT_MILLIS = 2000;
+
+    @Setting(value = "Time in milliseconds after which a request to the Registration Service fails if no response has been received. Only applies to the streaming and participant endpoints sources.", type = "long")
+    private static final String REGISTRATION_SERVICE_REQUEST_TIMEOUT_MILLIS = "refresh.catalog.registration.service.request.timeout.millis";
+    private static final long DEFAULT_REGISTRATION_SERVICE_REQUEST_TIMEOUT_MILLIS = 10_000;
+
+    @Setting(value = "Time in seconds a resolved DID document is cached before it is resolved again.", type = "long")
+    private static final String DID_CACHE_TTL_SECONDS = "refresh.catalog.did.cache.ttl.seconds";
+    private static final long DEFAULT_DID_CACHE_TTL_SECONDS = 300;
+
+    @Setting(value = "Maximum number of DID documents kept in the cache.", type = "int")
+    private static final String DID_CACHE_MAX_ENTRIES = "refresh.catalog.did.cache.max.entries";
+    private static final int DEFAULT_DID_CACHE_MAX_ENTRIES = 10_000;
+
+    @Setting(value = "Consecutive failed resolutions of a DID after which resolving it is suspended for the backoff time. "
+            + "A single failed refresh, e.g. a did-server restart, does not suspend a DID unless this is set to 1.", type = "int")
+    private static final String DID_FAILURE_THRESHOLD = "refresh.catalog.did.failure.threshold";
+    private static final int DEFAULT_DID_FAILURE_THRESHOLD = 3;
+
+    @Setting(value = "Time in seconds a failing DID is not resolved after its first suspension. Doubles with every further failure.", type = "long")
+    private static final String DID_FAILURE_BACKOFF_SECONDS = "refresh.catalog.did.failure.backoff.seconds";
+    private static final long DEFAULT_DID_FAILURE_BACKOFF_SECONDS = 10;
+
+    @Setting(value = "Maximum time in seconds a failing DID is not resolved.", type = "long")
+    private static final String DID_FAILURE_MAX_BACKOFF_SECONDS = "refresh.catalog.did.failure.max.backoff.seconds";
+    private static final long DEFAULT_DID_FAILURE_MAX_BACKOFF_SECONDS = 600;
+
+    @Setting(value = "Time in seconds after which a trial resolution of a suspended DID that has not completed counts as failed.", type = "long")
+    private static final String DID_FAILURE_TRIAL_TIMEOUT_SECONDS = "refresh.catalog.did.failure.trial.timeout.seconds";
+    private static final long DEFAULT_DID_FAILURE_TRIAL_TIMEOUT_SECONDS = 60;
+
+    @Setting(value = "Resolve did:web DIDs with the pooled HTTP/2 client of this extension instead of the runtime's Did resolver.", type = "boolean")
+    private static final String DID_HTTP_ENABLED = "refresh.catalog.did.http.enabled";
+    private static final boolean DEFAULT_DID_HTTP_ENABLED = false;
+
+    @Setting(value = "Fetch did:web Did Documents over https.", type = "boolean")
+    private static final String DID_WEB_USE_HTTPS = "edc.iam.did.web.use.https";
+
+    @Setting(value = "Maximum number of idle connections kept alive for did:web resolution.", type = "int")
+    private static final String DID_HTTP_MAX_IDLE_CONNECTIONS = "refresh.catalog.did.http.max.idle.connections";
+    private static final int DEFAULT_DID_HTTP_MAX_IDLE_CONNECTIONS = 16;
+
+    @Setting(value = "Time in seconds an idle did:web connection is kept alive.", type = "long")
+    private static final String DID_HTTP_KEEP_ALIVE_SECONDS = "refresh.catalog.did.http.keep.alive.seconds";
+    private static final long DEFAULT_DID_HTTP_KEEP_ALIVE_SECONDS = 300;
+
+    @Setting(value = "Maximum number of concurrent did:web requests to a single host.", type = "int")
+    private static final String DID_HTTP_MAX_REQUESTS_PER_HOST = "refresh.catalog.did.http.max.requests.per.host";
+    private static final int DEFAULT_DID_HTTP_MAX_REQUESTS_PER_HOST = 32;
+
+    @Setting(value = "Time in milliseconds after which connecting to a did:web host fails.", type = "long")
+    private static final String DID_HTTP_CONNECT_TIMEOUT_MILLIS = "refresh.catalog.did.http.connect.timeout.millis";
+    private static final long DEFAULT_DID_HTTP_CONNECT_TIMEOUT_MILLIS = 2000;
+
+    @Setting(value = "Time in milliseconds after which a did:web request, including connecting and reading the Did Document, fails.", type = "long")
+    private static final String DID_HTTP_CALL_TIMEOUT_MILLIS = "refresh.catalog.did.http.call.timeout.millis";
+    private static final long DEFAULT_DID_HTTP_CALL_TIMEOUT_MILLIS = 5000;
+
+    @Setting(value = "Maximum number of participant DIDs resolved concurrently. 1 resolves them sequentially.", type = "int")
+    private static final String RESOLUTION_MAX_IN_FLIGHT = "refresh.catalog.resolution.max.in.flight";
+    private static final int DEFAULT_RESOLUTION_MAX_IN_FLIGHT = 1;
+
+    @Setting(value = "Time in seconds after which the concurrent resolution of a single participant DID is abandoned. An abandoned resolution keeps its slot until it returns, so the DID HTTP timeouts should be shorter.", type = "long")
+    private static final String RESOLUTION_TIMEOUT_SECONDS = "refresh.catalog.resolution.timeout.seconds";
+    private static final long DEFAULT_RESOLUTION_TIMEOUT_SECONDS = 10;
+
+    @Setting(value = "Parse the participant list of the Registration Service while it is received and resolve each participant as soon as it has been read.", type = "boolean")
+    private static final String PARTICIPANTS_STREAMING_ENABLED = "refresh.catalog.participants.streaming.enabled";
+
+    @Setting(value = "Read the participants together with their DSP endpoints from the participant endpoints API of the Registration Service instead of resolving every Did Document.", type = "boolean")
+    private static final String PARTICIPANT_ENDPOINTS_ENABLED = "refresh.catalog.participant.endpoints.enabled";
+
+    @Setting(value = "Serve the nodes from a snapshot that is refreshed in the background instead of querying the Registration Service on every call.", type = "boolean")
+    private static final String SNAPSHOT_ENABLED = "refresh.catalog.snapshot.enabled";
+
+    @Setting(value = "Time in seconds between two background refreshes of the node snapshot.", type = "long")
+    private static final String SNAPSHOT_REFRESH_PERIOD_SECONDS = "refresh.catalog.snapshot.refresh.period.seconds";
+    private static final long DEFAULT_SNAPSHOT_REFRESH_PERIOD_SECONDS = 30;
+
+    @Setting(value = "Accept node insert, update and remove notifications on the management API. Requires the snapshot mode.", type = "boolean")
+    private static final String NODE_NOTIFICATIONS_ENABLED = "refresh.catalog.node.notifications.enabled";
+
+    @Setting(value = "Time in seconds a pushed node insert, update or removal is kept while the participant listings of the Registration Service contradict it.", type = "long")
+    private static final String NODE_RECONCILIATION_PERIOD_SECONDS = "refresh.catalog.node.reconciliation.period.seconds";
+    private static final long DEFAULT_NODE_RECONCILIATION_PERIOD_SECONDS = 300;
+
+    @Setting(value = "Crawl nodes whose catalog rarely changes less often, between the minimum and maximum crawl interval. Requires the persistent federated cache store of the catalog-store extension.", type = "boolean")
+    private static final String CRAWL_SCHEDULING_ENABLED = "refresh.catalog.crawl.scheduling.enabled";
+
+    @Setting(value = "Time in seconds between two crawls of a node whose catalog has just changed.", type = "long")
+    private static final String CRAWL_MIN_INTERVAL_SECONDS = "refresh.catalog.crawl.min.interval.seconds";
+    private static final long DEFAULT_CRAWL_MIN_INTERVAL_SECONDS = 5;
+
+    @Setting(value = "Maximum time in seconds between two crawls of a node whose catalog does not change.", type = "long")
+    private static final String CRAWL_MAX_INTERVAL_SECONDS = "refresh.catalog.crawl.max.interval.seconds";
+    private static final long DEFAULT_CRAWL_MAX_INTERVAL_SECONDS = 600;
+
+    @Setting(value = "File the node snapshot is persisted to and loaded from at startup. Not persisted if absent.")
+    private static final String SNAPSHOT_FILE = "refresh.catalog.snapshot.file";
+
+    @Setting(value = "Time in seconds after which the latency of a participant's DSP endpoint is probed again. Only applies to participants publishing several endpoints.", type = "long")
+    private static final String ENDPOINT_PROBE_INTERVAL_SECONDS = "refresh.catalog.endpoint.probe.interval.seconds";
+    private static final long DEFAULT_ENDPOINT_PROBE_INTERVAL_SECONDS = 60;
+
+    @Setting(value = "Time in milliseconds after which probing a participant's DSP endpoint counts as failed.", type = "long")
+    private static final String ENDPOINT_PROBE_TIMEOUT_MILLIS = "refresh.catalog.endpoint.probe.timeout.millis";
+    private static final long DEFAULT_ENDPOINT_PROBE_TIMEOUT_MILLIS = 2000;
+
+    @Setting(value = "Number of connector replicas sharing the crawl targets. 1 disables sharding.", type = "int")
+    private static final String SHARD_REPLICA_COUNT = "refresh.catalog.shard.replica.count";
+    private static final int DEFAULT_SHARD_REPLICA_COUNT = 1;
+
+    @Setting(value = "Index of this connector replica, from 0 to refresh.catalog.shard.replica.count - 1.", type = "int")
+    private static final String SHARD_REPLICA_ID = "refresh.catalog.shard.replica.id";
+
+    @Setting(value = "Number of points each replica owns on the consistent-hash ring.", type = "int")
+    private static final String SHARD_VIRTUAL_NODES = "refresh.catalog.shard.virtual.nodes";
+    private static final int DEFAULT_SHARD_VIRTUAL_NODES = 128;
+
     @Inject
     private Monitor monitor;
 
@@ -47,12 +187,181 @@ public class RegistrationServiceNodeDirectoryExtension implements ServiceExtensi
     @Inject
     private DidResolverRegistry didResolverRegistry;
 
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+
+    // only needed for the node notification API
+    @Inject(required = false)
+    private WebService webService;
+
+    @Inject(required = false)
+    private ManagementApiConfiguration managementApiConfiguration;
+
+    // only needed for scheduled crawling, which requires a store retaining the catalogs of skipped nodes
+    @Inject(required = false)
+    private FederatedCacheStore federatedCacheStore;
+
+    private ExecutorService resolutionExecutor;
+    private OkHttpClient didHttpClient;
+    private SnapshotNodeDirectory snapshotDirectory;
+    private Duration snapshotRefreshPeriod;
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (context.getSetting(CRAWL_SCHEDULING_ENABLED, false) && !(federatedCacheStore instanceof FingerprintedCacheStore)) {
+            throw new EdcException(format("%s requires a %s, e.g. the persistent store of the catalog-store extension, but %s is in use",
+                    CRAWL_SCHEDULING_ENABLED, FingerprintedCacheStore.class.getSimpleName(),
+                    federatedCacheStore != null ? federatedCacheStore.getClass().getSimpleName() : "no store"));
+        }
+    }
+
     @Provider
     public FederatedCacheNodeDirectory federatedCacheNodeDirectory(ServiceExtensionContext context) {
+        var directory = shardedDirectory(context, registrationServiceDirectory(context));
+        if (!context.getSetting(CRAWL_SCHEDULING_ENABLED, false)) {
+            return directory;
+        }
+        var scheduler = new CrawlScheduler(
+                Duration.ofSeconds(context.getSetting(CRAWL_MIN_INTERVAL_SECONDS, DEFAULT_CRAWL_MIN_INTERVAL_SECONDS)),
+                Duration.ofSeconds(context.getSetting(CRAWL_MAX_INTERVAL_SECONDS, DEFAULT_CRAWL_MAX_INTERVAL_SECONDS)));
+        return new ScheduledNodeDirectory(directory, (FingerprintedCacheStore) federatedCacheStore, scheduler, clock, monitor);
+    }
+
+    private FederatedCacheNodeDirectory shardedDirectory(ServiceExtensionContext context, FederatedCacheNodeDirectory directory) {
+        var replicaCount = context.getSetting(SHARD_REPLICA_COUNT, DEFAULT_SHARD_REPLICA_COUNT);
+        if (replicaCount <= 1) {
+            return directory;
+        }
+        var replicaId = context.getSetting(SHARD_REPLICA_ID, 0);
+        if (replicaId < 0 || replicaId >= replicaCount) {
+            throw new EdcException(format("%s must be between 0 and %d but was %d", SHARD_REPLICA_ID, replicaCount - 1, replicaId));
+        }
+        monitor.info(format("Crawling the share of replica %d out of %d", replicaId, replicaCount));
+        var ring = new ConsistentHashRing(replicaCount, context.getSetting(SHARD_VIRTUAL_NODES, DEFAULT_SHARD_VIRTUAL_NODES));
+        return new ShardedNodeDirectory(directory, ring, replicaId);
+    }
+
+    private FederatedCacheNodeDirectory registrationServiceDirectory(ServiceExtensionContext context) {
         var registrationServiceApiUrl = context.getConfig().getString(REGISTRATION_SERVICE_API_URL);
-        var apiClient = RegistryApiClientFactory.createApiClient(registrationServiceApiUrl, identityService::obtainClientCredentials, monitor, typeManager.getMapper());
-        var resolver = new FederatedCacheNodeResolver(didResolverRegistry, monitor);
-        return new RegistrationServiceNodeDirectory(apiClient, resolver, monitor);
+        var didCache = new DidDocumentCache(
+                Duration.ofSeconds(context.getSetting(DID_CACHE_TTL_SECONDS, DEFAULT_DID_CACHE_TTL_SECONDS)),
+                context.getSetting(DID_CACHE_MAX_ENTRIES, DEFAULT_DID_CACHE_MAX_ENTRIES),
+                clock);
+        var circuitBreaker = new DidCircuitBreaker(
+                context.getSetting(DID_FAILURE_THRESHOLD, DEFAULT_DID_FAILURE_THRESHOLD),
+                Duration.ofSeconds(context.getSetting(DID_FAILURE_BACKOFF_SECONDS, DEFAULT_DID_FAILURE_BACKOFF_SECONDS)),
+                Duration.ofSeconds(context.getSetting(DID_FAILURE_MAX_BACKOFF_SECONDS, DEFAULT_DID_FAILURE_MAX_BACKOFF_SECONDS)),
+                Duration.ofSeconds(context.getSetting(DID_FAILURE_TRIAL_TIMEOUT_SECONDS, DEFAULT_DID_FAILURE_TRIAL_TIMEOUT_SECONDS)),
+                clock);
+        var metrics = new RefreshCatalogMetrics(Metrics.globalRegistry);
+        metrics.bindDidCache(didCache);
+        metrics.bindCircuitBreaker(circuitBreaker);
+        var endpointSelector = endpointSelector(context);
+        var pendingChanges = new PendingNodeChanges(
+                Duration.ofSeconds(context.getSetting(NODE_RECONCILIATION_PERIOD_SECONDS, DEFAULT_NODE_RECONCILIATION_PERIOD_SECONDS)), clock);
+        RegistrationServiceNodeDirectory directory;
+        if (context.getSetting(PARTICIPANT_ENDPOINTS_ENABLED, false)) {
+            var nodeSource = new ParticipantEndpointsNodeSource(registrationServiceHttpClient(context), registrationServiceRequests(context, registrationServiceApiUrl), typeManager.getMapper(), endpointSelector);
+            directory = new RegistrationServiceNodeDirectory(() -> metrics.timeListParticipants(nodeSource::fetch), pendingChanges, metrics, monitor);
+        } else {
+            var resolver = new FederatedCacheNodeResolver(didResolverRegistry(context), didCache, circuitBreaker, endpointSelector, metrics, monitor);
+            directory = new RegistrationServiceNodeDirectory(participantSource(context, registrationServiceApiUrl), bulkNodeResolver(context, resolver), pendingChanges, metrics, monitor);
+        }
+        if (!context.getSetting(SNAPSHOT_ENABLED, false)) {
+            return directory;
+        }
+        snapshotRefreshPeriod = Duration.ofSeconds(context.getSetting(SNAPSHOT_REFRESH_PERIOD_SECONDS, DEFAULT_SNAPSHOT_REFRESH_PERIOD_SECONDS));
+        var scheduler = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), "refresh-catalog-snapshot");
+        var snapshotFilePath = context.getSetting(SNAPSHOT_FILE, null);
+        var snapshotFile = snapshotFilePath != null ? new NodeSnapshotFile(Path.of(snapshotFilePath), monitor) : null;
+        snapshotDirectory = new SnapshotNodeDirectory(directory, scheduler, snapshotFile, monitor);
+        snapshotDirectory.loadPersisted();
+        if (context.getSetting(NODE_NOTIFICATIONS_ENABLED, false)) {
+            if (webService == null || managementApiConfiguration == null) {
+                throw new EdcException(format("%s requires the management API", NODE_NOTIFICATIONS_ENABLED));
+            }
+            webService.registerResource(managementApiConfiguration.getContextAlias(), new NodeNotificationApiController(snapshotDirectory));
+        }
+        return snapshotDirectory;
+    }
+
+    @Override
+    public void start() {
+        if (snapshotDirectory != null) {
+            snapshotDirectory.start(snapshotRefreshPeriod);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (snapshotDirectory != null) {
+            snapshotDirectory.stop();
+        }
+        if (resolutionExecutor != null) {
+            resolutionExecutor.shutdownNow();
+        }
+        if (didHttpClient != null) {
+            didHttpClient.dispatcher().executorService().shutdown();
+            didHttpClient.connectionPool().evictAll();
+        }
+    }
+
+    private ParticipantSource participantSource(ServiceExtensionContext context, String registrationServiceApiUrl) {
+        if (context.getSetting(PARTICIPANTS_STREAMING_ENABLED, false)) {
+            return new StreamingParticipantSource(registrationServiceHttpClient(context), registrationServiceRequests(context, registrationServiceApiUrl), typeManager.getMapper());
+        }
+        return ParticipantSource.of(RegistryApiClientFactory.createApiClient(registrationServiceApiUrl, identityService::obtainClientCredentials, monitor, typeManager.getMapper()));
+    }
+
+    private DidResolverRegistry didResolverRegistry(ServiceExtensionContext context) {
+        if (!context.getSetting(DID_HTTP_ENABLED, DEFAULT_DID_HTTP_ENABLED)) {
+            return didResolverRegistry;
+        }
+        didHttpClient = new OkHttpClient.Builder()
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectionPool(new ConnectionPool(
+                        context.getSetting(DID_HTTP_MAX_IDLE_CONNECTIONS, DEFAULT_DID_HTTP_MAX_IDLE_CONNECTIONS),
+                        context.getSetting(DID_HTTP_KEEP_ALIVE_SECONDS, DEFAULT_DID_HTTP_KEEP_ALIVE_SECONDS), TimeUnit.SECONDS))
+                .connectTimeout(Duration.ofMillis(context.getSetting(DID_HTTP_CONNECT_TIMEOUT_MILLIS, DEFAULT_DID_HTTP_CONNECT_TIMEOUT_MILLIS)))
+                .callTimeout(Duration.ofMillis(context.getSetting(DID_HTTP_CALL_TIMEOUT_MILLIS, DEFAULT_DID_HTTP_CALL_TIMEOUT_MILLIS)))
+                .build();
+        var webResolver = new PooledWebDidResolver(didHttpClient, context.getSetting(DID_WEB_USE_HTTPS, false), typeManager.getMapper(),
+                context.getSetting(DID_HTTP_MAX_REQUESTS_PER_HOST, DEFAULT_DID_HTTP_MAX_REQUESTS_PER_HOST));
+        return new PooledDidResolverRegistry(webResolver, didResolverRegistry);
+    }
+
+    private HttpClient registrationServiceHttpClient(ServiceExtensionContext context) {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(context.getSetting(REGISTRATION_SERVICE_CONNECT_TIMEOUT_MILLIS, DEFAULT_REGISTRATION_SERVICE_CONNECT_TIMEOUT_MILLIS)))
+                .build();
+    }
+
+    private RegistrationServiceRequests registrationServiceRequests(ServiceExtensionContext context, String registrationServiceApiUrl) {
+        var requestTimeout = Duration.ofMillis(context.getSetting(REGISTRATION_SERVICE_REQUEST_TIMEOUT_MILLIS, DEFAULT_REGISTRATION_SERVICE_REQUEST_TIMEOUT_MILLIS));
+        return new RegistrationServiceRequests(registrationServiceApiUrl, requestTimeout, identityService::obtainClientCredentials);
+    }
+
+    private EndpointSelector endpointSelector(ServiceExtensionContext context) {
+        var probeTimeout = Duration.ofMillis(context.getSetting(ENDPOINT_PROBE_TIMEOUT_MILLIS, DEFAULT_ENDPOINT_PROBE_TIMEOUT_MILLIS));
+        var httpClient = HttpClient.newBuilder()
+                .connectTimeout(probeTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        var probeInterval = Duration.ofSeconds(context.getSetting(ENDPOINT_PROBE_INTERVAL_SECONDS, DEFAULT_ENDPOINT_PROBE_INTERVAL_SECONDS));
+        return new EndpointSelector(new HttpEndpointProbe(httpClient, probeTimeout), probeInterval, probeTimeout, clock);
+    }
+
+    private BulkNodeResolver bulkNodeResolver(ServiceExtensionContext context, FederatedCacheNodeResolver resolver) {
+        var maxInFlight = context.getSetting(RESOLUTION_MAX_IN_FLIGHT, DEFAULT_RESOLUTION_MAX_IN_FLIGHT);
+        if (maxInFlight <= 1) {
+            return BulkNodeResolver.sequential(resolver, monitor);
+        }
+        var timeout = Duration.ofSeconds(context.getSetting(RESOLUTION_TIMEOUT_SECONDS, DEFAULT_RESOLUTION_TIMEOUT_SECONDS));
+        resolutionExecutor = executorInstrumentation.instrument(Executors.newFixedThreadPool(maxInFlight), "refresh-catalog-did-resolution");
+        return BulkNodeResolver.concurrent(resolver, resolutionExecutor, maxInFlight, timeout, monitor);
     }
 }
 
@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.iam.TokenParameters;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.result.Result;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Builds authenticated requests to the Registration Service API.
+ */
+class RegistrationServiceRequests {
+
+    private final String registrationServiceApiUrl;
+    private final Duration requestTimeout;
+    private final Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider;
+
+    /**
+     * Constructs {@link RegistrationServiceRequests}
+     *
+     * @param registrationServiceApiUrl base URL of the Registration Service API.
+     * @param requestTimeout            time after which a request fails if the Registration Service has not responded.
+     * @param credentialsProvider       obtains the token authenticating the connector to the Registration Service.
+     */
+    RegistrationServiceRequests(String registrationServiceApiUrl, Duration requestTimeout, Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider) {
+        this.registrationServiceApiUrl = registrationServiceApiUrl;
+        this.requestTimeout = requestTimeout;
+        this.credentialsProvider = credentialsProvider;
+    }
+
+    /**
+     * Creates a {@code GET} request of a JSON resource, carrying a token whose audience is the Registration Service.
+     *
+     * @param path path of the resource, relative to the API base URL.
+     */
+    public Result<HttpRequest.Builder> get(String path) {
+        var token = credentialsProvider.apply(TokenParameters.Builder.newInstance().audience(registrationServiceApiUrl).build());
+        if (token.failed()) {
+            return Result.failure("Failed to obtain a token for the Registration Service: " + token.getFailureDetail());
+        }
+        return Result.success(HttpRequest.newBuilder(URI.create(registrationServiceApiUrl + path))
+                .header("Authorization", "Bearer " + token.getContent().getToken())
+                .header("Accept", "application/json")
+                .timeout(requestTimeout)
+                .GET());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Federated cache directory returning only the nodes whose catalog is due for a crawl according to a
+ * {@link CrawlScheduler}, so that nodes whose catalog rarely changes are crawled less often.
+ * <p>
+ * The crawler expires all cached catalogs in every run and deletes those that are not saved again. The catalogs of
+ * the nodes that are skipped are retained by the {@link FingerprintedCacheStore} instead, and stay in the cache until
+ * the node is crawled. The intervals of the nodes crawled in the previous run are adapted to the fingerprints the
+ * store computed when it saved their catalogs, so that neither the catalogs nor copies of them are read.
+ */
+class ScheduledNodeDirectory implements FederatedCacheNodeDirectory {
+
+    private final FederatedCacheNodeDirectory delegate;
+    private final FingerprintedCacheStore store;
+    private final CrawlScheduler scheduler;
+    private final Clock clock;
+    private final Monitor monitor;
+
+    /**
+     * Constructs {@link ScheduledNodeDirectory}
+     *
+     * @param delegate  directory returning all nodes.
+     * @param store     federated cache the crawler writes the catalogs to.
+     * @param scheduler decides which nodes are crawled.
+     * @param clock     clock
+     * @param monitor   monitor
+     */
+    ScheduledNodeDirectory(FederatedCacheNodeDirectory delegate, FingerprintedCacheStore store, CrawlScheduler scheduler, Clock clock, Monitor monitor) {
+        this.delegate = delegate;
+        this.store = store;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public List<FederatedCacheNode> getAll() {
+        scheduler.recordFingerprints(store::getFingerprint);
+
+        var nodes = delegate.getAll();
+        var due = scheduler.selectDue(nodes, clock.instant());
+        var dueUrls = due.stream().map(FederatedCacheNode::getTargetUrl).collect(Collectors.toSet());
+        for (var node : nodes) {
+            if (!dueUrls.contains(node.getTargetUrl())) {
+                store.retain(node.getTargetUrl());
+            }
+        }
+        monitor.debug(() -> format("Crawling %d out of %d federated cache nodes", due.size(), nodes.size()));
+        return due;
+    }
+
+    @Override
+    public void insert(FederatedCacheNode federatedCacheNode) {
+        delegate.insert(federatedCacheNode);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Federated cache directory returning only the nodes owned by one replica of a horizontally scaled connector. The
+ * nodes are assigned to replicas on a {@link ConsistentHashRing} keyed by participant DID, so each replica crawls its
+ * own slice of the dataspace.
+ */
+class ShardedNodeDirectory implements FederatedCacheNodeDirectory {
+
+    private final FederatedCacheNodeDirectory delegate;
+    private final ConsistentHashRing ring;
+    private final int replicaId;
+
+    /**
+     * Constructs {@link ShardedNodeDirectory}
+     *
+     * @param delegate  directory returning all nodes.
+     * @param ring      ring assigning the nodes to replicas.
+     * @param replicaId index of this replica, between 0 and the number of replicas of the ring.
+     */
+    ShardedNodeDirectory(FederatedCacheNodeDirectory delegate, ConsistentHashRing ring, int replicaId) {
+        this.delegate = delegate;
+        this.ring = ring;
+        this.replicaId = replicaId;
+    }
+
+    @Override
+    public List<FederatedCacheNode> getAll() {
+        return delegate.getAll().stream()
+                .filter(node -> ring.ownerOf(node.getName()) == replicaId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void insert(FederatedCacheNode federatedCacheNode) {
+        delegate.insert(federatedCacheNode);
+    }
+}
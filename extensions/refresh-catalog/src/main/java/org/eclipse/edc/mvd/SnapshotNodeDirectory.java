@@ -0,0 +1,245 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import static java.lang.String.format;
+
+/**
+ * Federated cache directory serving the last successfully resolved node list of a
+ * {@link RegistrationServiceNodeDirectory}. The list is rebuilt in the background and swapped atomically, so callers
+ * never wait for the Registration Service, and a failed refresh keeps the previous nodes instead of dropping them.
+ * <p>
+ * If a {@link NodeSnapshotFile} is configured, every new snapshot is persisted and the last persisted one is served
+ * right after a restart, until the first refresh reconciles it with the Registration Service. Snapshots are written
+ * after they have been swapped in, outside the lock guarding the updates, by one thread at a time that always writes
+ * the latest snapshot, so a slow disk neither delays other updates nor lets an older snapshot overwrite a newer one.
+ * <p>
+ * Participant changes can also be pushed as deltas through {@link #insert(FederatedCacheNode)} and
+ * {@link #remove(String)}. They are applied to the snapshot immediately and handed to the delegate, which keeps them on
+ * top of its full listings until a listing confirms them or its reconciliation period has elapsed, so that a refresh
+ * does not revert a pushed change the Registration Service has not caught up with yet. Deltas received before the
+ * first snapshot exists are queued and applied on top of it.
+ */
+class SnapshotNodeDirectory implements FederatedCacheNodeDirectory {
+
+    private final RegistrationServiceNodeDirectory delegate;
+    private final ScheduledExecutorService scheduler;
+    @Nullable
+    private final NodeSnapshotFile snapshotFile;
+    private final Monitor monitor;
+    private final AtomicReference<NodeIndex> snapshot = new AtomicReference<>();
+    private final Object updateLock = new Object();
+    // deltas received before the first snapshot, applied on top of it
+    private final List<UnaryOperator<NodeIndex>> deltasBeforeSnapshot = new ArrayList<>();
+    // set while a thread writes the snapshot file
+    private final AtomicBoolean writing = new AtomicBoolean();
+    // snapshot last written to or read from the file
+    private volatile NodeIndex persisted;
+    // deltas received while a refresh is in flight, replayed on top of its result
+    private List<UnaryOperator<NodeIndex>> pendingDeltas;
+    // refresh currently running, joined by concurrent callers instead of starting another one
+    private CompletableFuture<Void> inFlight;
+
+    /**
+     * Constructs {@link SnapshotNodeDirectory}
+     *
+     * @param delegate     directory building the node list.
+     * @param scheduler    executor running the background refreshes.
+     * @param snapshotFile file the snapshot is persisted to, null to keep it in memory only.
+     * @param monitor      monitor
+     */
+    SnapshotNodeDirectory(RegistrationServiceNodeDirectory delegate, ScheduledExecutorService scheduler, @Nullable NodeSnapshotFile snapshotFile, Monitor monitor) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.snapshotFile = snapshotFile;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the current snapshot. Only the very first call blocks, if no snapshot has been built yet.
+     */
+    @Override
+    public List<FederatedCacheNode> getAll() {
+        var index = snapshot.get();
+        if (index == null) {
+            refresh();
+            index = snapshot.get();
+        }
+        return index != null ? index.nodes() : List.of();
+    }
+
+    /**
+     * Adds a node to the snapshot, or replaces the node of the same participant.
+     */
+    @Override
+    public void insert(FederatedCacheNode federatedCacheNode) {
+        delegate.insert(federatedCacheNode);
+        applyDelta(index -> index.put(federatedCacheNode));
+    }
+
+    /**
+     * Removes the node of a participant from the snapshot.
+     *
+     * @param did the participant's DID.
+     */
+    void remove(String did) {
+        delegate.remove(did);
+        applyDelta(index -> index.remove(did));
+    }
+
+    /**
+     * Serves the persisted snapshot, if any, until the first refresh completes.
+     */
+    void loadPersisted() {
+        if (snapshotFile == null) {
+            return;
+        }
+        snapshotFile.read().ifPresent(nodes -> {
+            var index = NodeIndex.of(nodes);
+            if (snapshot.compareAndSet(null, index)) {
+                persisted = index;
+                monitor.info(format("Loaded %d federated cache nodes from the persisted snapshot", nodes.size()));
+            }
+        });
+    }
+
+    /**
+     * Schedules the background refresh of the snapshot.
+     *
+     * @param period time between the end of a refresh and the start of the next one.
+     */
+    void start(Duration period) {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Rebuilds the node list and swaps it in. The previous snapshot is kept if the refresh fails. A call made while a
+     * refresh is running waits for that refresh instead of starting another one.
+     */
+    void refresh() {
+        var refresh = new CompletableFuture<Void>();
+        CompletableFuture<Void> running;
+        synchronized (updateLock) {
+            running = inFlight;
+            if (running == null) {
+                inFlight = refresh;
+                pendingDeltas = new ArrayList<>();
+            }
+        }
+        if (running != null) {
+            running.join();
+            return;
+        }
+        try {
+            var result = delegate.refresh();
+            if (result.succeeded()) {
+                synchronized (updateLock) {
+                    var index = NodeIndex.of(result.getContent());
+                    for (var delta : deltasBeforeSnapshot) {
+                        index = delta.apply(index);
+                    }
+                    deltasBeforeSnapshot.clear();
+                    for (var delta : pendingDeltas) {
+                        index = delta.apply(index);
+                    }
+                    snapshot.set(index);
+                }
+                persistLatest();
+            } else {
+                monitor.warning(format("Keeping the previous federated cache node snapshot: %s", result.getFailureDetail()));
+            }
+        } catch (Exception e) {
+            monitor.severe("Refreshing the federated cache node snapshot failed", e);
+        } finally {
+            synchronized (updateLock) {
+                pendingDeltas = null;
+                inFlight = null;
+            }
+            refresh.complete(null);
+        }
+    }
+
+    private void applyDelta(UnaryOperator<NodeIndex> delta) {
+        synchronized (updateLock) {
+            var previous = snapshot.get();
+            if (previous == null) {
+                // there is no full listing yet the delta could be applied to
+                deltasBeforeSnapshot.add(delta);
+                return;
+            }
+            if (pendingDeltas != null) {
+                pendingDeltas.add(delta);
+            }
+            snapshot.set(delta.apply(previous));
+        }
+        persistLatest();
+    }
+
+    /**
+     * Writes the current snapshot if it differs from the persisted one. If another thread is writing, it is left to
+     * that thread, which checks for a newer snapshot once it is done.
+     */
+    private void persistLatest() {
+        if (snapshotFile == null) {
+            return;
+        }
+        while (writing.compareAndSet(false, true)) {
+            var index = snapshot.get();
+            try {
+                var last = persisted;
+                if (index != null && (last == null || !sameNodes(last.nodes(), index.nodes()))) {
+                    snapshotFile.write(index.nodes());
+                }
+                persisted = index;
+            } finally {
+                writing.set(false);
+            }
+            if (snapshot.get() == index) {
+                return;
+            }
+        }
+    }
+
+    private static boolean sameNodes(List<FederatedCacheNode> previous, List<FederatedCacheNode> nodes) {
+        if (previous.size() != nodes.size()) {
+            return false;
+        }
+        for (var i = 0; i < nodes.size(); i++) {
+            if (!NodeIndex.sameNode(previous.get(i), nodes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
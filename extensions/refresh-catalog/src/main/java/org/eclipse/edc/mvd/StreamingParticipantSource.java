@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+
+/**
+ * {@link ParticipantSource} parsing the participant list of the Registration Service incrementally while it is being
+ * received, so that each participant is handed over as soon as it has been read and the whole list is never held in
+ * memory.
+ */
+class StreamingParticipantSource implements ParticipantSource {
+
+    private static final String PARTICIPANTS_PATH = "/registry/participants";
+
+    private final HttpClient httpClient;
+    private final RegistrationServiceRequests requests;
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructs {@link StreamingParticipantSource}
+     *
+     * @param httpClient client sending the request.
+     * @param requests   builds the authenticated request.
+     * @param mapper     mapper deserializing the participants.
+     */
+    StreamingParticipantSource(HttpClient httpClient, RegistrationServiceRequests requests, ObjectMapper mapper) {
+        this.httpClient = httpClient;
+        this.requests = requests;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Result<Integer> forEach(Consumer<ParticipantDto> consumer) {
+        var request = requests.get(PARTICIPANTS_PATH);
+        if (request.failed()) {
+            return Result.failure(request.getFailureDetail());
+        }
+        try {
+            var response = httpClient.send(request.getContent().build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (var body = response.body()) {
+                if (response.statusCode() != 200) {
+                    return Result.failure(format("Listing participants failed with status %d", response.statusCode()));
+                }
+                return parse(body, consumer);
+            }
+        } catch (IOException e) {
+            return Result.failure("Listing participants failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure("Interrupted while listing participants");
+        }
+    }
+
+    private Result<Integer> parse(InputStream body, Consumer<ParticipantDto> consumer) throws IOException {
+        try (var parser = mapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return Result.failure("Listing participants failed: expected a JSON array");
+            }
+            var count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(mapper.readValue(parser, ParticipantDto.class));
+                count++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                return Result.failure("Listing participants failed: unexpected token " + parser.currentToken());
+            }
+            return Result.success(count);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkNodeResolverTest {
+
+    private final FederatedCacheNodeResolver resolver = mock(FederatedCacheNodeResolver.class);
+    private final Monitor monitor = mock(Monitor.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void resolveAll_sequential() {
+        var participants = participants(3);
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> Result.success(node(i.getArgument(0))));
+
+        var nodes = BulkNodeResolver.sequential(resolver, monitor).resolveAll(participants);
+
+        assertThat(nodes).extracting(FederatedCacheNode::getName).containsExactly("did:web:company0", "did:web:company1", "did:web:company2");
+    }
+
+    @Test
+    void resolveAll_concurrent_keepsParticipantOrder() {
+        var participants = participants(20);
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> {
+            ParticipantDto participant = i.getArgument(0);
+            // resolve the first participants last
+            Thread.sleep(100 - participants.indexOf(participant) * 5L);
+            return Result.success(node(participant));
+        });
+
+        var nodes = BulkNodeResolver.concurrent(resolver, executor, 4, Duration.ofSeconds(5), monitor).resolveAll(participants);
+
+        assertThat(nodes).extracting(FederatedCacheNode::getName)
+                .containsExactlyElementsOf(participants.stream().map(ParticipantDto::getDid).collect(Collectors.toList()));
+    }
+
+    @Test
+    void resolveAll_concurrent_boundsInFlight() {
+        var participants = participants(20);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+            return Result.success(node(i.getArgument(0)));
+        });
+
+        var nodes = BulkNodeResolver.concurrent(resolver, executor, 2, Duration.ofSeconds(5), monitor).resolveAll(participants);
+
+        assertThat(nodes).hasSize(20);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void resolveAll_concurrent_dropsTimedOutAndFailedParticipants() throws InterruptedException {
+        var participants = participants(3);
+        var blocker = new CountDownLatch(1);
+        when(resolver.toFederatedCacheNode(participants.get(0))).thenReturn(Result.success(node(participants.get(0))));
+        when(resolver.toFederatedCacheNode(participants.get(1))).thenAnswer(i -> {
+            blocker.await(5, TimeUnit.SECONDS);
+            return Result.success(node(participants.get(1)));
+        });
+        when(resolver.toFederatedCacheNode(participants.get(2))).thenThrow(new RuntimeException("boom"));
+
+        var nodes = BulkNodeResolver.concurrent(resolver, executor, 4, Duration.ofMillis(200), monitor).resolveAll(participants);
+        blocker.countDown();
+
+        assertThat(nodes).extracting(FederatedCacheNode::getName).containsExactly("did:web:company0");
+    }
+
+    @Test
+    void resolveAll_concurrent_releasesSlotsOfHungResolutions() throws InterruptedException {
+        var participants = participants(3);
+        var interrupted = new CountDownLatch(6);
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> {
+            try {
+                // never returns unless interrupted
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return Result.failure("interrupted");
+        });
+        var bulkResolver = BulkNodeResolver.concurrent(resolver, executor, 1, Duration.ofMillis(100), monitor);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThat(bulkResolver.resolveAll(participants)).isEmpty();
+            assertThat(bulkResolver.resolveAll(participants)).isEmpty();
+        });
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void resolveAll_concurrent_keepsSlotOfAbandonedResolutionUntilItReturns() {
+        var participants = participants(2);
+        var unblock = new CountDownLatch(1);
+        when(resolver.toFederatedCacheNode(participants.get(0))).thenAnswer(i -> {
+            // like blocking I/O, ignores the interrupt
+            while (true) {
+                try {
+                    unblock.await();
+                    return Result.success(node(participants.get(0)));
+                } catch (InterruptedException ignored) {
+                    // keep blocking
+                }
+            }
+        });
+        when(resolver.toFederatedCacheNode(participants.get(1))).thenReturn(Result.success(node(participants.get(1))));
+        var bulkResolver = BulkNodeResolver.concurrent(resolver, executor, 1, Duration.ofMillis(100), monitor);
+
+        assertThat(bulkResolver.resolveAll(participants)).isEmpty();
+        verify(resolver, never()).toFederatedCacheNode(participants.get(1));
+
+        unblock.countDown();
+        assertThat(bulkResolver.resolveAll(List.of(participants.get(1)))).extracting(FederatedCacheNode::getName).containsExactly("did:web:company1");
+    }
+
+    private List<ParticipantDto> participants(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ParticipantDto("did:web:company" + i, ParticipantDto.OnboardingStatus.ONBOARDED))
+                .collect(Collectors.toList());
+    }
+
+    private FederatedCacheNode node(ParticipantDto participant) {
+        return new FederatedCacheNode(participant.getDid(), "http://test.target.url", List.of("dataspace-protocol-http"));
+    }
+}
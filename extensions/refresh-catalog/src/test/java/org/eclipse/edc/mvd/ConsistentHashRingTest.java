@@ -0,0 +1,74 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConsistentHashRingTest {
+
+    private static final int KEY_COUNT = 10_000;
+
+    @Test
+    void ownerOf_isStable() {
+        var ring = new ConsistentHashRing(3, 128);
+        var other = new ConsistentHashRing(3, 128);
+
+        IntStream.range(0, 100).mapToObj(i -> "did:web:company" + i)
+                .forEach(did -> assertThat(ring.ownerOf(did)).isEqualTo(other.ownerOf(did)).isBetween(0, 2));
+    }
+
+    @Test
+    void ownerOf_singleReplicaOwnsEverything() {
+        var ring = new ConsistentHashRing(1, 16);
+
+        assertThat(IntStream.range(0, 100).map(i -> ring.ownerOf("did:web:company" + i))).containsOnly(0);
+    }
+
+    @Test
+    void ownerOf_spreadsKeysEvenly() {
+        var ring = new ConsistentHashRing(4, 128);
+        var counts = new int[4];
+
+        IntStream.range(0, KEY_COUNT).forEach(i -> counts[ring.ownerOf("did:web:company" + i)]++);
+
+        assertThat(counts).allSatisfy(count -> assertThat(count).isBetween(KEY_COUNT / 4 * 7 / 10, KEY_COUNT / 4 * 13 / 10));
+    }
+
+    @Test
+    void ownerOf_addingReplicaOnlyMovesItsShare() {
+        var ring = new ConsistentHashRing(3, 128);
+        var grown = new ConsistentHashRing(4, 128);
+
+        var moved = IntStream.range(0, KEY_COUNT)
+                .mapToObj(i -> "did:web:company" + i)
+                .filter(did -> ring.ownerOf(did) != grown.ownerOf(did))
+                .collect(Collectors.toList());
+
+        assertThat(moved).hasSizeLessThan(KEY_COUNT * 4 / 10)
+                .allSatisfy(did -> assertThat(grown.ownerOf(did)).isEqualTo(3));
+    }
+
+    @Test
+    void verifyArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConsistentHashRing(0, 128));
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConsistentHashRing(2, 0));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CrawlSchedulerTest {
+
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(10);
+    private static final Duration MAX_INTERVAL = Duration.ofSeconds(35);
+    private static final Instant NOW = Instant.parse("2023-01-01T00:00:00Z");
+
+    private final CrawlScheduler scheduler = new CrawlScheduler(MIN_INTERVAL, MAX_INTERVAL);
+    private final FederatedCacheNode node1 = node("company1");
+    private final FederatedCacheNode node2 = node("company2");
+
+    @Test
+    void selectDue_newNodesAreDue() {
+        assertThat(scheduler.selectDue(List.of(node1, node2), NOW)).containsExactly(node1, node2);
+        assertThat(scheduler.getAwaitingResult()).containsExactlyInAnyOrder(node1.getTargetUrl(), node2.getTargetUrl());
+    }
+
+    @Test
+    void selectDue_skipsNodesUntilIntervalElapsed() {
+        scheduler.selectDue(List.of(node1), NOW);
+        record(node1, "a");
+
+        assertThat(scheduler.selectDue(List.of(node1), NOW.plusSeconds(9))).isEmpty();
+        assertThat(scheduler.getAwaitingResult()).isEmpty();
+        assertThat(scheduler.selectDue(List.of(node1), NOW.plusSeconds(10))).containsExactly(node1);
+    }
+
+    @Test
+    void selectDue_nodeWhoseCrawlFailedIsDue() {
+        scheduler.selectDue(List.of(node1), NOW);
+        record(node1, "a");
+        scheduler.selectDue(List.of(node1), NOW.plusSeconds(10));
+        scheduler.recordFingerprints(url -> null);
+
+        assertThat(scheduler.selectDue(List.of(node1), NOW.plusSeconds(11))).containsExactly(node1);
+    }
+
+    @Test
+    void recordFingerprints_unchangedCatalogDoublesIntervalUpToMaximum() {
+        var now = NOW;
+        for (var i = 0; i < 4; i++) {
+            scheduler.selectDue(List.of(node1), now);
+            record(node1, "a");
+            now = now.plus(scheduler.getInterval(node1.getTargetUrl()));
+        }
+
+        assertThat(scheduler.getInterval(node1.getTargetUrl())).isEqualTo(MAX_INTERVAL);
+    }
+
+    @Test
+    void recordFingerprints_changedCatalogResetsInterval() {
+        scheduler.selectDue(List.of(node1), NOW);
+        record(node1, "a");
+        scheduler.selectDue(List.of(node1), NOW.plusSeconds(10));
+        record(node1, "a");
+        assertThat(scheduler.getInterval(node1.getTargetUrl())).isEqualTo(MIN_INTERVAL.multipliedBy(2));
+
+        scheduler.selectDue(List.of(node1), NOW.plusSeconds(30));
+        record(node1, "b");
+
+        assertThat(scheduler.getInterval(node1.getTargetUrl())).isEqualTo(MIN_INTERVAL);
+    }
+
+    @Test
+    void recordFingerprints_missingFingerprintKeepsInterval() {
+        scheduler.selectDue(List.of(node1), NOW);
+        record(node1, "a");
+        scheduler.selectDue(List.of(node1), NOW.plusSeconds(10));
+        record(node1, "a");
+
+        scheduler.selectDue(List.of(node1), NOW.plusSeconds(30));
+        scheduler.recordFingerprints(url -> null);
+
+        assertThat(scheduler.getInterval(node1.getTargetUrl())).isEqualTo(MIN_INTERVAL.multipliedBy(2));
+    }
+
+    @Test
+    void selectDue_forgetsRemovedNodes() {
+        scheduler.selectDue(List.of(node1, node2), NOW);
+
+        scheduler.selectDue(List.of(node2), NOW);
+
+        assertThat(scheduler.getInterval(node1.getTargetUrl())).isNull();
+        assertThat(scheduler.getInterval(node2.getTargetUrl())).isEqualTo(MIN_INTERVAL);
+    }
+
+    @Test
+    void verifyIntervals() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CrawlScheduler(Duration.ZERO, MAX_INTERVAL));
+        assertThatIllegalArgumentException().isThrownBy(() -> new CrawlScheduler(MAX_INTERVAL, MIN_INTERVAL));
+    }
+
+    private void record(FederatedCacheNode node, String fingerprint) {
+        scheduler.recordFingerprints(Map.of(node.getTargetUrl(), fingerprint)::get);
+    }
+
+    private static FederatedCacheNode node(String name) {
+        return new FederatedCacheNode("did:web:" + name, "http://" + name + "/api/dsp", List.of("dataspace-protocol-http"));
+    }
+}
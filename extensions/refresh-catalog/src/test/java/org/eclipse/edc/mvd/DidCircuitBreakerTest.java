@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DidCircuitBreakerTest {
+
+    private static final String DID = "did:web:company1";
+    private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Duration BACKOFF = Duration.ofSeconds(10);
+    private static final Duration TRIAL_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Clock clock = mock(Clock.class);
+    private final DidCircuitBreaker circuitBreaker = new DidCircuitBreaker(2, BACKOFF, Duration.ofSeconds(30), TRIAL_TIMEOUT, clock);
+
+    @Test
+    void closed_untilThresholdReached() {
+        when(clock.instant()).thenReturn(NOW);
+
+        circuitBreaker.recordFailure(DID);
+        assertThat(circuitBreaker.getState(DID)).isEqualTo(DidCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+        assertThat(circuitBreaker.getStates()).isEmpty();
+
+        circuitBreaker.recordFailure(DID);
+        assertThat(circuitBreaker.getState(DID)).isEqualTo(DidCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire(DID)).isFalse();
+        assertThat(circuitBreaker.getStates()).containsEntry(DID, DidCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpen_admitsSingleTrialAfterBackoff() {
+        openCircuit();
+        when(clock.instant()).thenReturn(NOW.plus(BACKOFF));
+
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+        assertThat(circuitBreaker.getState(DID)).isEqualTo(DidCircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire(DID)).isFalse();
+    }
+
+    @Test
+    void halfOpen_successClosesCircuit() {
+        openCircuit();
+        when(clock.instant()).thenReturn(NOW.plus(BACKOFF));
+        circuitBreaker.tryAcquire(DID);
+
+        circuitBreaker.recordSuccess(DID);
+
+        assertThat(circuitBreaker.getState(DID)).isEqualTo(DidCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+    }
+
+    @Test
+    void halfOpen_failureDoublesBackoffUpToMaximum() {
+        openCircuit();
+        var reopenedAt = NOW.plus(BACKOFF);
+        when(clock.instant()).thenReturn(reopenedAt);
+        circuitBreaker.tryAcquire(DID);
+        circuitBreaker.recordFailure(DID);
+
+        when(clock.instant()).thenReturn(reopenedAt.plus(BACKOFF));
+        assertThat(circuitBreaker.tryAcquire(DID)).isFalse();
+        when(clock.instant()).thenReturn(reopenedAt.plus(BACKOFF.multipliedBy(2)));
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+
+        // third opening would be 40s but is capped at 30s
+        var thirdOpening = reopenedAt.plus(BACKOFF.multipliedBy(2));
+        circuitBreaker.recordFailure(DID);
+        when(clock.instant()).thenReturn(thirdOpening.plusSeconds(30));
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+    }
+
+    @Test
+    void halfOpen_trialWithoutResultCountsAsFailure() {
+        openCircuit();
+        var trialStart = NOW.plus(BACKOFF);
+        when(clock.instant()).thenReturn(trialStart);
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+
+        // the trial is abandoned and never records a result
+        when(clock.instant()).thenReturn(trialStart.plus(TRIAL_TIMEOUT).minusMillis(1));
+        assertThat(circuitBreaker.tryAcquire(DID)).isFalse();
+        when(clock.instant()).thenReturn(trialStart.plus(TRIAL_TIMEOUT));
+        assertThat(circuitBreaker.tryAcquire(DID)).isFalse();
+        assertThat(circuitBreaker.getState(DID)).isEqualTo(DidCircuitBreaker.State.OPEN);
+
+        // re-opened at the trial deadline with twice the backoff
+        when(clock.instant()).thenReturn(trialStart.plus(TRIAL_TIMEOUT).plus(BACKOFF.multipliedBy(2)));
+        assertThat(circuitBreaker.tryAcquire(DID)).isTrue();
+        assertThat(circuitBreaker.getState(DID)).isEqualTo(DidCircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void openCircuit() {
+        when(clock.instant()).thenReturn(NOW);
+        circuitBreaker.recordFailure(DID);
+        circuitBreaker.recordFailure(DID);
+    }
+}
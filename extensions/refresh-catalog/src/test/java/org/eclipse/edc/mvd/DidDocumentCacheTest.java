@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DidDocumentCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    void get_missAndHit() {
+        when(clock.instant()).thenReturn(NOW);
+        var cache = new DidDocumentCache(TTL, 10, clock);
+        var document = didDocument("did:web:company1");
+
+        assertThat(cache.get("did:web:company1")).isNull();
+        cache.put("did:web:company1", document);
+
+        assertThat(cache.get("did:web:company1")).isSameAs(document);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_expired() {
+        when(clock.instant()).thenReturn(NOW, NOW.plus(TTL));
+        var cache = new DidDocumentCache(TTL, 10, clock);
+        cache.put("did:web:company1", didDocument("did:web:company1"));
+
+        assertThat(cache.get("did:web:company1")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsed() {
+        var cache = new DidDocumentCache(TTL, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("did:web:company1", didDocument("did:web:company1"));
+        cache.put("did:web:company2", didDocument("did:web:company2"));
+        cache.get("did:web:company1");
+
+        cache.put("did:web:company3", didDocument("did:web:company3"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("did:web:company1")).isNotNull();
+        assertThat(cache.get("did:web:company2")).isNull();
+        assertThat(cache.get("did:web:company3")).isNotNull();
+    }
+
+    @Test
+    void invalidate() {
+        var cache = new DidDocumentCache(TTL, 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("did:web:company1", didDocument("did:web:company1"));
+        cache.put("did:web:company2", didDocument("did:web:company2"));
+
+        cache.invalidate("did:web:company1");
+        assertThat(cache.get("did:web:company1")).isNull();
+        assertThat(cache.get("did:web:company2")).isNotNull();
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void constructor_invalidMaxEntries() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new DidDocumentCache(TTL, 0, Clock.systemUTC()));
+    }
+
+    private DidDocument didDocument(String did) {
+        return DidDocument.Builder.newInstance().id(did).build();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EndpointSelectorTest {
+
+    private static final String FAST = "http://eu.company1/api/dsp";
+    private static final String SLOW = "http://us.company1/api/dsp";
+    private static final String OTHER = "http://ap.company1/api/dsp";
+    private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Duration PROBE_INTERVAL = Duration.ofMinutes(1);
+
+    private final EndpointProbe probe = mock(EndpointProbe.class);
+    private final Clock clock = mock(Clock.class);
+    private final EndpointSelector selector = new EndpointSelector(probe, PROBE_INTERVAL, Duration.ofMillis(200), clock);
+
+    @Test
+    void select_singleEndpoint_notProbed() {
+        assertThat(selector.select(List.of(SLOW))).isEqualTo(SLOW);
+
+        verifyNoInteractions(probe);
+    }
+
+    @Test
+    void select_fastestEndpoint() {
+        when(clock.instant()).thenReturn(NOW);
+        probeReturns(SLOW, Duration.ofMillis(120));
+        probeReturns(FAST, Duration.ofMillis(15));
+
+        assertThat(selector.select(List.of(SLOW, FAST))).isEqualTo(FAST);
+        assertThat(selector.getLatency(FAST)).isEqualTo(Duration.ofMillis(15));
+    }
+
+    @Test
+    void select_reusesMeasurementsUntilStale() {
+        when(clock.instant()).thenReturn(NOW);
+        probeReturns(SLOW, Duration.ofMillis(120));
+        probeReturns(FAST, Duration.ofMillis(15));
+
+        selector.select(List.of(SLOW, FAST));
+        selector.select(List.of(SLOW, FAST));
+        verify(probe, times(1)).probe(FAST);
+
+        when(clock.instant()).thenReturn(NOW.plus(PROBE_INTERVAL));
+        selector.select(List.of(SLOW, FAST));
+        verify(probe, times(2)).probe(FAST);
+    }
+
+    @Test
+    void select_failsOverToHealthyEndpoint() {
+        when(clock.instant()).thenReturn(NOW);
+        probeReturns(SLOW, Duration.ofMillis(120));
+        probeReturns(FAST, Duration.ofMillis(15));
+        selector.select(List.of(SLOW, FAST));
+
+        when(clock.instant()).thenReturn(NOW.plus(PROBE_INTERVAL));
+        when(probe.probe(FAST)).thenReturn(CompletableFuture.failedFuture(new IOException("connection refused")));
+
+        assertThat(selector.select(List.of(SLOW, FAST))).isEqualTo(SLOW);
+    }
+
+    @Test
+    void select_timedOutProbeCountsAsFailure() {
+        when(clock.instant()).thenReturn(NOW);
+        probeReturns(SLOW, Duration.ofMillis(120));
+        when(probe.probe(FAST)).thenReturn(new CompletableFuture<>());
+
+        assertThat(selector.select(List.of(FAST, SLOW))).isEqualTo(SLOW);
+        assertThat(selector.getLatency(FAST)).isNull();
+    }
+
+    @Test
+    void select_allFailing_keepsDocumentOrder() {
+        when(clock.instant()).thenReturn(NOW);
+        when(probe.probe(FAST)).thenReturn(CompletableFuture.failedFuture(new IOException("connection refused")));
+        when(probe.probe(SLOW)).thenReturn(CompletableFuture.failedFuture(new IOException("connection refused")));
+
+        assertThat(selector.select(List.of(SLOW, FAST))).isEqualTo(SLOW);
+    }
+
+    @Test
+    void prune_dropsEndpointsMissingFromLatestListing() {
+        when(clock.instant()).thenReturn(NOW);
+        probeReturns(SLOW, Duration.ofMillis(120));
+        probeReturns(FAST, Duration.ofMillis(15));
+        probeReturns(OTHER, Duration.ofMillis(40));
+
+        selector.select(List.of(SLOW, FAST));
+        selector.prune();
+        assertThat(selector.size()).isEqualTo(2);
+
+        selector.select(List.of(FAST, OTHER));
+        selector.prune();
+
+        assertThat(selector.size()).isEqualTo(2);
+        assertThat(selector.getLatency(SLOW)).isNull();
+        assertThat(selector.getLatency(FAST)).isEqualTo(Duration.ofMillis(15));
+        verify(probe, times(1)).probe(FAST);
+    }
+
+    @Test
+    void select_measurementPrunedWhileSelecting() {
+        when(clock.instant()).thenReturn(NOW);
+        probeReturns(SLOW, Duration.ofMillis(120));
+        probeReturns(OTHER, Duration.ofMillis(200));
+        selector.select(List.of(SLOW, OTHER));
+        // a refresh completing while FAST is probed drops the measurement of SLOW
+        when(probe.probe(FAST)).thenAnswer(invocation -> {
+            selector.prune();
+            selector.prune();
+            return CompletableFuture.completedFuture(Duration.ofMillis(15));
+        });
+
+        assertThat(selector.select(List.of(SLOW, FAST))).isEqualTo(FAST);
+    }
+
+    private void probeReturns(String url, Duration latency) {
+        when(probe.probe(url)).thenReturn(CompletableFuture.completedFuture(latency));
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.mvd;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.iam.did.spi.document.Service;
 import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
@@ -28,13 +29,19 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static java.util.List.of;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class FederatedCacheNodeResolverTest {
@@ -46,7 +53,13 @@ class FederatedCacheNodeResolverTest {
     
     private final DidResolverRegistry didResolver = mock(DidResolverRegistry.class);
     private final Monitor monitor = mock(Monitor.class);
-    private final FederatedCacheNodeResolver resolver = new FederatedCacheNodeResolver(didResolver, monitor);
+    private final DidDocumentCache cache = new DidDocumentCache(Duration.ofMinutes(5), 100, Clock.systemUTC());
+    private final DidCircuitBreaker circuitBreaker = new DidCircuitBreaker(1, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofMinutes(1), Clock.systemUTC());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EndpointProbe probe = mock(EndpointProbe.class);
+    private final EndpointSelector endpointSelector = new EndpointSelector(probe, Duration.ofMinutes(1), Duration.ofSeconds(1), Clock.systemUTC());
+    private final FederatedCacheNodeResolver resolver = new FederatedCacheNodeResolver(didResolver, cache, circuitBreaker, endpointSelector,
+            new RefreshCatalogMetrics(meterRegistry), monitor);
 
     @NotNull
     private static DidDocument createDidDocument(List<Service> services) {
@@ -100,16 +113,78 @@ class FederatedCacheNodeResolverTest {
         var url1 = "url1.com";
         var url2 = "url2.com";
         when(didResolver.resolve(DID)).thenReturn(Result.success(createDidDocument(of(dspMessagingService(url2), dspMessagingService(url1)))));
+        when(probe.probe(url1)).thenReturn(CompletableFuture.completedFuture(Duration.ofMillis(20)));
+        when(probe.probe(url2)).thenReturn(CompletableFuture.completedFuture(Duration.ofMillis(80)));
 
         var result = resolver.toFederatedCacheNode(participantDto(DID));
 
         assertThat(result.succeeded()).isTrue();
         var node = result.getContent();
         assertThat(node.getName()).isEqualTo(DID);
-        assertThat(node.getTargetUrl()).isIn(url1, url2);
+        assertThat(node.getTargetUrl()).isEqualTo(url1);
         assertThat(node.getSupportedProtocols()).containsExactly(SUPPORTED_PROTOCOL);
     }
 
+    @Test
+    void getNode_singleDspMessagingService_notProbed() {
+        when(didResolver.resolve(DID)).thenReturn(Result.success(createDidDocument(of(dspMessagingService(DSP_URL), dspMessagingService(DSP_URL)))));
+
+        var result = resolver.toFederatedCacheNode(participantDto(DID));
+
+        assertThat(result.getContent().getTargetUrl()).isEqualTo(DSP_URL);
+        verifyNoInteractions(probe);
+    }
+
+    @Test
+    void getNode_cachedDidDocument() {
+        when(didResolver.resolve(DID)).thenReturn(Result.success(createDidDocument(of(dspMessagingService(DSP_URL)))));
+
+        resolver.toFederatedCacheNode(participantDto(DID));
+        var result = resolver.toFederatedCacheNode(participantDto(DID));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent().getTargetUrl()).isEqualTo(DSP_URL);
+        verify(didResolver, times(1)).resolve(DID);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("refresh.catalog.did.resolution").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("refresh.catalog.did.resolution.results").tag("outcome", "success").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getNode_failureOpensCircuit() {
+        when(didResolver.resolve(DID)).thenReturn(Result.failure("failure"));
+
+        resolver.toFederatedCacheNode(participantDto(DID));
+        var result = resolver.toFederatedCacheNode(participantDto(DID));
+
+        assertThat(result.failed()).isTrue();
+        verify(didResolver, times(1)).resolve(DID);
+        assertThat(resolver.getCircuitStates()).containsEntry(DID, DidCircuitBreaker.State.OPEN);
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("refresh.catalog.did.resolution.results").tag("outcome", "failure").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getNode_resolverThrows() {
+        when(didResolver.resolve(DID)).thenThrow(new RuntimeException("connect timed out"));
+
+        var result = resolver.toFederatedCacheNode(participantDto(DID));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(resolver.getCircuitStates()).containsEntry(DID, DidCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void getNode_invalidate() {
+        when(didResolver.resolve(DID)).thenReturn(Result.success(createDidDocument(of(dspMessagingService(DSP_URL)))));
+
+        resolver.toFederatedCacheNode(participantDto(DID));
+        resolver.invalidate(DID);
+        resolver.toFederatedCacheNode(participantDto(DID));
+
+        verify(didResolver, times(2)).resolve(DID);
+    }
+
     private static class StreamSuccessProvider implements ArgumentsProvider {
 
         @Override
@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class NodeNotificationApiControllerTest {
+
+    private final SnapshotNodeDirectory directory = mock(SnapshotNodeDirectory.class);
+    private final NodeNotificationApiController controller = new NodeNotificationApiController(directory);
+
+    @Test
+    void upsertNode() {
+        controller.upsertNode(new FederatedCacheNodeDto("did:web:company1", "http://company1:8282/api/dsp", null));
+
+        var captor = ArgumentCaptor.forClass(FederatedCacheNode.class);
+        verify(directory).insert(captor.capture());
+        assertThat(captor.getValue().getName()).isEqualTo("did:web:company1");
+        assertThat(captor.getValue().getTargetUrl()).isEqualTo("http://company1:8282/api/dsp");
+        assertThat(captor.getValue().getSupportedProtocols()).containsExactly("dataspace-protocol-http");
+    }
+
+    @Test
+    void upsertNode_missingTargetUrl() {
+        assertThatExceptionOfType(InvalidRequestException.class)
+                .isThrownBy(() -> controller.upsertNode(new FederatedCacheNodeDto("did:web:company1", " ", List.of())));
+        verify(directory, never()).insert(any());
+    }
+
+    @Test
+    void removeNode() {
+        controller.removeNode("did:web:company1");
+
+        verify(directory).remove("did:web:company1");
+    }
+}
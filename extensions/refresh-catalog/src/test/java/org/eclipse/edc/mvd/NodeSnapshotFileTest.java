@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class NodeSnapshotFileTest {
+
+    private final Monitor monitor = mock(Monitor.class);
+
+    @Test
+    void writeAndRead(@TempDir Path dir) {
+        var file = new NodeSnapshotFile(dir.resolve("nodes.bin"), monitor);
+        var nodes = List.of(
+                new FederatedCacheNode("did:web:company1", "http://company1:8282/api/dsp", List.of("dataspace-protocol-http")),
+                new FederatedCacheNode("did:web:company2", "http://company2:8282/api/dsp", List.of("dataspace-protocol-http", "ids-multipart")));
+
+        file.write(nodes);
+        var read = file.read();
+
+        assertThat(read).isPresent();
+        assertThat(read.get()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(nodes);
+    }
+
+    @Test
+    void write_replacesPreviousSnapshot(@TempDir Path dir) {
+        var file = new NodeSnapshotFile(dir.resolve("snapshots/nodes.bin"), monitor);
+        var node = new FederatedCacheNode("did:web:company2", "http://company2:8282/api/dsp", List.of("dataspace-protocol-http"));
+
+        file.write(List.of(new FederatedCacheNode("did:web:company1", "http://company1:8282/api/dsp", List.of("dataspace-protocol-http"))));
+        file.write(List.of(node));
+
+        assertThat(file.read()).hasValueSatisfying(nodes -> assertThat(nodes).usingRecursiveFieldByFieldElementComparator().containsExactly(node));
+    }
+
+    @Test
+    void write_tooManyProtocols_keepsPreviousSnapshot(@TempDir Path dir) {
+        var file = new NodeSnapshotFile(dir.resolve("nodes.bin"), monitor);
+        var node = new FederatedCacheNode("did:web:company1", "http://company1:8282/api/dsp", List.of("dataspace-protocol-http"));
+        file.write(List.of(node));
+
+        file.write(List.of(new FederatedCacheNode("did:web:company2", "http://company2:8282/api/dsp", Collections.nCopies(0x10000, "dataspace-protocol-http"))));
+
+        assertThat(file.read()).hasValueSatisfying(nodes -> assertThat(nodes).usingRecursiveFieldByFieldElementComparator().containsExactly(node));
+        assertThat(dir.resolve("nodes.bin.tmp")).doesNotExist();
+        verify(monitor).warning(contains("did:web:company2"));
+    }
+
+    @Test
+    void read_missingFile(@TempDir Path dir) {
+        assertThat(new NodeSnapshotFile(dir.resolve("nodes.bin"), monitor).read()).isEmpty();
+    }
+
+    @Test
+    void read_unknownFormat(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("nodes.bin");
+        Files.writeString(path, "not a snapshot");
+
+        assertThat(new NodeSnapshotFile(path, monitor).read()).isEmpty();
+    }
+
+    @Test
+    void read_negativeNodeCount(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("nodes.bin");
+        try (var out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x4D56444E);
+            out.writeInt(1);
+            out.writeInt(-1);
+        }
+
+        assertThat(new NodeSnapshotFile(path, monitor).read()).isEmpty();
+    }
+
+    @Test
+    void read_nodeCountBeyondFileSize(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("nodes.bin");
+        try (var out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x4D56444E);
+            out.writeInt(1);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertThat(new NodeSnapshotFile(path, monitor).read()).isEmpty();
+    }
+
+    @Test
+    void read_protocolCountBeyondFileSize(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("nodes.bin");
+        try (var out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x4D56444E);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeUTF("company1");
+            out.writeUTF("http://company1/api/dsp");
+            out.writeShort(0xFFFF);
+        }
+
+        assertThat(new NodeSnapshotFile(path, monitor).read()).isEmpty();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticipantEndpointsNodeSourceTest {
+
+    private static final String API_URL = "http://registration-service/api/authority";
+    private static final String BODY = "[{\"did\":\"did:web:company1\",\"endpoints\":[\"http://eu.company1/api/dsp\",\"http://us.company1/api/dsp\"]}," +
+            "{\"did\":\"did:web:company2\",\"endpoints\":[\"http://company2/api/dsp\"]}," +
+            "{\"did\":\"did:web:company3\",\"endpoints\":[]}]";
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    @SuppressWarnings("unchecked")
+    private final HttpResponse<InputStream> response = mock(HttpResponse.class);
+    private final EndpointProbe probe = mock(EndpointProbe.class);
+    private final ParticipantEndpointsNodeSource source = new ParticipantEndpointsNodeSource(httpClient,
+            new RegistrationServiceRequests(API_URL, Duration.ofSeconds(10), parameters -> Result.success(TokenRepresentation.Builder.newInstance().token("token").build())),
+            new ObjectMapper(), new EndpointSelector(probe, Duration.ofMinutes(1), Duration.ofSeconds(1), Clock.systemUTC()));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(httpClient.send(any(HttpRequest.class), any())).thenAnswer(i -> response);
+        when(probe.probe("http://eu.company1/api/dsp")).thenReturn(CompletableFuture.completedFuture(Duration.ofMillis(10)));
+        when(probe.probe("http://us.company1/api/dsp")).thenReturn(CompletableFuture.completedFuture(Duration.ofMillis(90)));
+    }
+
+    @Test
+    void fetch_buildsNodes() {
+        respond(200, BODY, "\"v1\"");
+
+        var result = source.fetch();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getContent().get(0).getName()).isEqualTo("did:web:company1");
+        assertThat(result.getContent().get(0).getTargetUrl()).isEqualTo("http://eu.company1/api/dsp");
+        assertThat(result.getContent().get(1).getTargetUrl()).isEqualTo("http://company2/api/dsp");
+        assertThat(result.getContent().get(1).getSupportedProtocols()).containsExactly("dataspace-protocol-http");
+    }
+
+    @Test
+    void fetch_notModified_reusesParticipants() throws Exception {
+        respond(200, BODY, "\"v1\"");
+        source.fetch();
+        respond(304, "", "\"v1\"");
+
+        var result = source.fetch();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).extracting(FederatedCacheNode::getName).containsExactly("did:web:company1", "did:web:company2");
+        var requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient, times(2)).send(requests.capture(), any());
+        assertThat(requests.getAllValues().get(0).headers().firstValue("If-None-Match")).isEmpty();
+        assertThat(requests.getAllValues().get(1).headers().firstValue("If-None-Match")).contains("\"v1\"");
+        assertThat(requests.getAllValues()).allSatisfy(request -> assertThat(request.timeout()).contains(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void fetch_errorStatus() {
+        respond(500, "", null);
+
+        assertThat(source.fetch().failed()).isTrue();
+    }
+
+    @Test
+    void fetch_notModifiedWithoutPreviousResponse() {
+        respond(304, "", "\"v1\"");
+
+        assertThat(source.fetch().failed()).isTrue();
+    }
+
+    private void respond(int status, String body, String entityTag) {
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        var headers = entityTag != null ? Map.of("ETag", List.of(entityTag)) : Map.<String, List<String>>of();
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+    }
+}
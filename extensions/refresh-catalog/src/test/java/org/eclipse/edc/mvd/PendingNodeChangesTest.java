@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PendingNodeChangesTest {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T00:00:00Z");
+
+    private final Clock clock = mock(Clock.class);
+    private final PendingNodeChanges changes = new PendingNodeChanges(Duration.ofSeconds(60), clock);
+
+    @Test
+    void reconcile_appliesChangesUntilConfirmed() {
+        when(clock.instant()).thenReturn(NOW);
+        var listed = node("did:web:company1", "http://company1/api/dsp");
+        var updated = node("did:web:company1", "http://company1:8282/api/dsp");
+        var removed = node("did:web:company2", "http://company2/api/dsp");
+        changes.insert(updated);
+        changes.remove("did:web:company2");
+
+        assertThat(changes.reconcile(List.of(listed, removed))).containsExactly(updated);
+        assertThat(changes.size()).isEqualTo(2);
+
+        assertThat(changes.reconcile(List.of(updated))).containsExactly(updated);
+        assertThat(changes.size()).isZero();
+        assertThat(changes.reconcile(List.of(listed, removed))).containsExactly(listed, removed);
+    }
+
+    @Test
+    void reconcile_listingWinsAfterReconciliationPeriod() {
+        when(clock.instant()).thenReturn(NOW);
+        var listed = node("did:web:company1", "http://company1/api/dsp");
+        changes.insert(node("did:web:company2", "http://company2/api/dsp"));
+        changes.remove("did:web:company1");
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(59));
+        assertThat(changes.reconcile(List.of(listed))).extracting(FederatedCacheNode::getName).containsExactly("did:web:company2");
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        assertThat(changes.reconcile(List.of(listed))).containsExactly(listed);
+        assertThat(changes.size()).isZero();
+    }
+
+    @Test
+    void reconcile_latestChangeOfParticipantWins() {
+        when(clock.instant()).thenReturn(NOW);
+        var pushed = node("did:web:company1", "http://company1/api/dsp");
+        changes.remove("did:web:company1");
+        changes.insert(pushed);
+
+        assertThat(changes.reconcile(List.of())).containsExactly(pushed);
+    }
+
+    private FederatedCacheNode node(String name, String targetUrl) {
+        return new FederatedCacheNode(name, targetUrl, List.of("dataspace-protocol-http"));
+    }
+}
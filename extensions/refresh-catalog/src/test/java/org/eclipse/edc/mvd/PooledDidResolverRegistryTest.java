@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PooledDidResolverRegistryTest {
+
+    private final PooledWebDidResolver webResolver = mock(PooledWebDidResolver.class);
+    private final DidResolverRegistry fallback = mock(DidResolverRegistry.class);
+    private final PooledDidResolverRegistry registry = new PooledDidResolverRegistry(webResolver, fallback);
+
+    @BeforeEach
+    void setUp() {
+        when(webResolver.getMethod()).thenReturn("web");
+    }
+
+    @Test
+    void resolve_didWeb() {
+        var didDocument = DidDocument.Builder.newInstance().id("did:web:company1").build();
+        when(webResolver.resolve("did:web:company1")).thenReturn(Result.success(didDocument));
+
+        assertThat(registry.resolve("did:web:company1").getContent()).isSameAs(didDocument);
+        verify(fallback, never()).resolve(anyString());
+    }
+
+    @Test
+    void resolve_otherMethod() {
+        when(fallback.resolve("did:key:z6Mkf")).thenReturn(Result.failure("unsupported"));
+
+        assertThat(registry.resolve("did:key:z6Mkf").failed()).isTrue();
+        verify(webResolver, never()).resolve(anyString());
+    }
+
+    @Test
+    void register_delegates() {
+        var resolver = mock(DidResolver.class);
+
+        registry.register(resolver);
+
+        verify(fallback).register(resolver);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledWebDidResolverTest {
+
+    private static final String DID_DOCUMENT = "{\"id\":\"%s\",\"service\":[{\"id\":\"dsp\",\"type\":\"DSPMessaging\",\"serviceEndpoint\":\"http://company1:8282/api/dsp\"}]}";
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private HttpServer server;
+    private PooledWebDidResolver resolver;
+    private String host;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/company1/did.json", exchange -> {
+            var body = String.format(DID_DOCUMENT, did("company1")).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        host = "localhost%3A" + server.getAddress().getPort();
+        var httpClient = new OkHttpClient.Builder()
+                .eventListener(new EventListener() {
+                    @Override
+                    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+                        connections.incrementAndGet();
+                    }
+                })
+                .build();
+        resolver = new PooledWebDidResolver(httpClient, false, new ObjectMapper(), 32);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void resolve() {
+        var result = resolver.resolve(did("company1"));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent().getId()).isEqualTo(did("company1"));
+        assertThat(result.getContent().getService()).hasSize(1);
+    }
+
+    @Test
+    void resolve_reusesConnection() {
+        for (var i = 0; i < 5; i++) {
+            assertThat(resolver.resolve(did("company1")).succeeded()).isTrue();
+        }
+
+        assertThat(connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void resolve_limitsConcurrentRequestsPerHost() throws IOException {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var slowServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        var serverExecutor = Executors.newCachedThreadPool();
+        var clientExecutor = Executors.newFixedThreadPool(8);
+        slowServer.setExecutor(serverExecutor);
+        slowServer.createContext("/company1/did.json", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            var body = String.format(DID_DOCUMENT, "did:web:company1").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        slowServer.start();
+        try {
+            var limitedResolver = new PooledWebDidResolver(new OkHttpClient(), false, new ObjectMapper(), 2);
+            var did = "did:web:localhost%3A" + slowServer.getAddress().getPort() + ":company1";
+            var results = new ArrayList<CompletableFuture<Boolean>>();
+            for (var i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> limitedResolver.resolve(did).succeeded(), clientExecutor));
+            }
+
+            assertThat(results).allSatisfy(result -> assertThat(result.join()).isTrue());
+            assertThat(maxInFlight.get()).isBetween(1, 2);
+        } finally {
+            slowServer.stop(0);
+            serverExecutor.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void resolve_notFound() {
+        assertThat(resolver.resolve(did("company2")).failed()).isTrue();
+    }
+
+    @Test
+    void resolve_notDidWeb() {
+        assertThat(resolver.resolve("did:key:z6Mkf").failed()).isTrue();
+    }
+
+    @Test
+    void toUrl() {
+        assertThat(PooledWebDidResolver.toUrl("did:web:did-server:company1", false).getContent()).hasToString("http://did-server/company1/did.json");
+        assertThat(PooledWebDidResolver.toUrl("did:web:example.com", true).getContent()).hasToString("https://example.com/.well-known/did.json");
+        assertThat(PooledWebDidResolver.toUrl("did:web:example.com%3A8443:user:alice", true).getContent()).hasToString("https://example.com:8443/user/alice/did.json");
+        assertThat(PooledWebDidResolver.toUrl("did:web:[::1]%3A8443", true).getContent()).hasToString("https://[::1]:8443/.well-known/did.json");
+        assertThat(PooledWebDidResolver.toUrl("did:web:", true).failed()).isTrue();
+    }
+
+    @Test
+    void toUrl_encodesPathSegments() {
+        assertThat(PooledWebDidResolver.toUrl("did:web:example.com:a%2Fb:c%3Fd%23e", true).getContent())
+                .hasToString("https://example.com/a%2Fb/c%3Fd%23e/did.json");
+    }
+
+    @Test
+    void toUrl_malformed() {
+        assertThat(PooledWebDidResolver.toUrl("did:web:example.com:user%zz", true).failed()).isTrue();
+        assertThat(PooledWebDidResolver.toUrl("did:web:exa%20mple.com", true).failed()).isTrue();
+        assertThat(PooledWebDidResolver.toUrl("did:web:example.com%3Ahttps", true).failed()).isTrue();
+        assertThat(PooledWebDidResolver.toUrl("did:web:example.com%2Fevil", true).failed()).isTrue();
+        assertThat(resolver.resolve("did:web:example.com:user%zz").failed()).isTrue();
+    }
+
+    private String did(String participant) {
+        return "did:web:" + host + ":" + participant;
+    }
+}
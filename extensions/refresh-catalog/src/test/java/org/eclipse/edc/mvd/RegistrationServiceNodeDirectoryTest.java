@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.mvd;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.eclipse.edc.catalog.spi.FederatedCacheNode;
 import org.eclipse.edc.registration.client.RegistryApiClient;
 import org.eclipse.edc.registration.client.model.ParticipantDto;
@@ -23,12 +24,20 @@ import org.eclipse.edc.spi.result.Result;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class RegistrationServiceNodeDirectoryTest {
@@ -37,7 +46,9 @@ class RegistrationServiceNodeDirectoryTest {
     private final FederatedCacheNodeResolver resolver = mock(FederatedCacheNodeResolver.class);
     private final Monitor monitor = mock(Monitor.class);
 
-    private final RegistrationServiceNodeDirectory directory = new RegistrationServiceNodeDirectory(registryApi, resolver, monitor);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RegistrationServiceNodeDirectory directory = new RegistrationServiceNodeDirectory(registryApi,
+            BulkNodeResolver.sequential(resolver, monitor), new RefreshCatalogMetrics(meterRegistry), monitor);
 
     @Test
     void getAll_emptyList() {
@@ -61,6 +72,9 @@ class RegistrationServiceNodeDirectoryTest {
         assertThat(cacheNodes)
                 .usingRecursiveFieldByFieldElementComparator()
                 .containsExactly(node1, node2);
+        assertThat(meterRegistry.get("refresh.catalog.directory.getall").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("refresh.catalog.registry.list.participants").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("refresh.catalog.directory.nodes").gauge().value()).isEqualTo(2);
     }
 
     @Test
@@ -78,10 +92,138 @@ class RegistrationServiceNodeDirectoryTest {
                 .containsExactly(node1);
     }
 
+    @Test
+    void getAll_registryFailure() {
+        when(registryApi.listParticipants()).thenThrow(new RuntimeException("failure"));
+
+        assertThat(directory.getAll()).isEmpty();
+    }
+
+    @Test
+    void refresh_registryFailure() {
+        when(registryApi.listParticipants()).thenThrow(new RuntimeException("failure"));
+
+        assertThat(directory.refresh().failed()).isTrue();
+    }
+
+    @Test
+    void getAll_concurrentCallersShareRefresh() throws Exception {
+        var company = getParticipant();
+        var node = node();
+        var listing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(registryApi.listParticipants()).thenAnswer(i -> {
+            listing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return ApiResult.success(List.of(company));
+        });
+        when(resolver.toFederatedCacheNode(company)).thenReturn(Result.success(node));
+
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var first = executor.submit(directory::getAll);
+            assertThat(listing.await(5, TimeUnit.SECONDS)).isTrue();
+            var others = List.<Future<List<FederatedCacheNode>>>of(executor.submit(directory::getAll), executor.submit(directory::getAll));
+            // give the other callers time to join the in-flight refresh
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(node);
+            for (var other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS)).containsExactly(node);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(registryApi, times(1)).listParticipants();
+    }
+
+    @Test
+    void getAll_sequentialCallersRefreshAgain() {
+        when(registryApi.listParticipants()).thenReturn(ApiResult.success(List.of()));
+
+        directory.getAll();
+        directory.getAll();
+
+        verify(registryApi, times(2)).listParticipants();
+    }
+
+    @Test
+    void getAll_streamingSource_resolvesWhileListing() {
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var node1 = node();
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenReturn(Result.failure("failure"));
+        ParticipantSource source = consumer -> {
+            consumer.accept(company1);
+            // the first participant is resolved before the next one is listed
+            verify(resolver).toFederatedCacheNode(company1);
+            consumer.accept(company2);
+            return Result.success(2);
+        };
+        var streamingDirectory = new RegistrationServiceNodeDirectory(source, BulkNodeResolver.sequential(resolver, monitor), pendingChanges(), new RefreshCatalogMetrics(meterRegistry), monitor);
+
+        assertThat(streamingDirectory.getAll()).containsExactly(node1);
+    }
+
+    @Test
+    void refresh_streamingSourceFailure() {
+        ParticipantSource source = consumer -> {
+            consumer.accept(getParticipant());
+            return Result.failure("connection reset");
+        };
+        var streamingDirectory = new RegistrationServiceNodeDirectory(source, BulkNodeResolver.sequential(resolver, monitor), pendingChanges(), new RefreshCatalogMetrics(meterRegistry), monitor);
+
+        assertThat(streamingDirectory.refresh().failed()).isTrue();
+    }
+
+    @Test
+    void refresh_nodeSource() {
+        var node = node();
+        var nodeSourceDirectory = new RegistrationServiceNodeDirectory(() -> Result.success(List.of(node)), pendingChanges(), new RefreshCatalogMetrics(meterRegistry), monitor);
+
+        assertThat(nodeSourceDirectory.refresh().getContent()).containsExactly(node);
+        assertThat(meterRegistry.get("refresh.catalog.directory.nodes").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void insert_keptAcrossRefreshesUntilListed() {
+        var company1 = getParticipant();
+        var listed = new FederatedCacheNode("did:web:company1", "http://company1/api/dsp", List.of("dataspace-protocol-http"));
+        var updated = new FederatedCacheNode("did:web:company1", "http://company1:8282/api/dsp", List.of("dataspace-protocol-http"));
+        var pushed = new FederatedCacheNode("did:web:company2", "http://company2/api/dsp", List.of("dataspace-protocol-http"));
+        when(registryApi.listParticipants()).thenReturn(ApiResult.success(List.of(company1)));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(listed));
+
+        directory.insert(updated);
+        directory.insert(pushed);
+
+        assertThat(directory.getAll()).containsExactly(updated, pushed);
+        assertThat(directory.getAll()).containsExactly(updated, pushed);
+    }
+
+    @Test
+    void remove_keptAcrossRefreshesUntilUnlisted() {
+        var company1 = getParticipant();
+        var listed = new FederatedCacheNode("did:web:company1", "http://company1/api/dsp", List.of("dataspace-protocol-http"));
+        when(registryApi.listParticipants()).thenReturn(ApiResult.success(List.of(company1)));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(listed));
+
+        directory.remove("did:web:company1");
+
+        assertThat(directory.getAll()).isEmpty();
+        assertThat(directory.getAll()).isEmpty();
+    }
+
     private FederatedCacheNode node() {
         return new FederatedCacheNode("test-name", "http://test.target.url", List.of("dataspace-protocol-http"));
     }
 
+    private PendingNodeChanges pendingChanges() {
+        return new PendingNodeChanges(Duration.ofMinutes(5), Clock.systemUTC());
+    }
+
     @NotNull
     private ParticipantDto getParticipant() {
         return new ParticipantDto(format("did:web:%s", "test-domainname-" + UUID.randomUUID()), ParticipantDto.OnboardingStatus.ONBOARDED);
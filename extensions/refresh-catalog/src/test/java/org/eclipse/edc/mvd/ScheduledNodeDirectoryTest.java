@@ -0,0 +1,131 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduledNodeDirectoryTest {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T00:00:00Z");
+
+    private final FederatedCacheNodeDirectory delegate = mock(FederatedCacheNodeDirectory.class);
+    private final FingerprintedCacheStore store = mock(FingerprintedCacheStore.class);
+    private final CrawlScheduler scheduler = new CrawlScheduler(Duration.ofSeconds(10), Duration.ofSeconds(600));
+    private final FederatedCacheNode node1 = node("company1");
+    private final FederatedCacheNode node2 = node("company2");
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.getAll()).thenReturn(List.of(node1, node2));
+    }
+
+    @Test
+    void getAll_crawlsAllNodesInitially() {
+        assertThat(directory(NOW).getAll()).containsExactly(node1, node2);
+        verify(store, never()).getFingerprint(anyString());
+        verify(store, never()).retain(anyString());
+    }
+
+    @Test
+    void getAll_skipsNodesNotDueAndRetainsTheirCatalog() {
+        crawled("a", "b");
+        directory(NOW).getAll();
+
+        var nodes = directory(NOW.plusSeconds(5)).getAll();
+
+        assertThat(nodes).isEmpty();
+        verify(store).retain(node1.getTargetUrl());
+        verify(store).retain(node2.getTargetUrl());
+        verify(store, never()).save(any());
+        verify(store, never()).query(any());
+    }
+
+    @Test
+    void getAll_crawlsNodesWithoutStoredCatalogAgain() {
+        when(store.getFingerprint(node1.getTargetUrl())).thenReturn("a");
+        directory(NOW).getAll();
+
+        // node2 failed to be crawled, so its catalog has been deleted
+        assertThat(directory(NOW.plusSeconds(5)).getAll()).containsExactly(node2);
+        verify(store).retain(node1.getTargetUrl());
+        verify(store, never()).retain(node2.getTargetUrl());
+    }
+
+    @Test
+    void getAll_onlyLooksUpFingerprintsOfCrawledNodes() {
+        crawled("a", "b");
+        directory(NOW).getAll();
+        directory(NOW.plusSeconds(5)).getAll();
+        directory(NOW.plusSeconds(6)).getAll();
+
+        // only the run following the initial crawl looks up the fingerprints
+        verify(store, times(1)).getFingerprint(node1.getTargetUrl());
+        verify(store, times(1)).getFingerprint(node2.getTargetUrl());
+    }
+
+    @Test
+    void getAll_backsOffNodesWhoseCatalogDoesNotChange() {
+        crawled("a", "b");
+        directory(NOW).getAll();
+        directory(NOW.plusSeconds(10)).getAll();
+
+        // node1 changed its catalog, node2 did not
+        crawled("c", "b");
+        directory(NOW.plusSeconds(20)).getAll();
+
+        assertThat(scheduler.getInterval(node1.getTargetUrl())).isEqualTo(Duration.ofSeconds(10));
+        assertThat(scheduler.getInterval(node2.getTargetUrl())).isEqualTo(Duration.ofSeconds(20));
+    }
+
+    @Test
+    void insert_delegates() {
+        directory(NOW).insert(node1);
+
+        verify(delegate).insert(node1);
+    }
+
+    private void crawled(String fingerprint1, String fingerprint2) {
+        when(store.getFingerprint(node1.getTargetUrl())).thenReturn(fingerprint1);
+        when(store.getFingerprint(node2.getTargetUrl())).thenReturn(fingerprint2);
+    }
+
+    private ScheduledNodeDirectory directory(Instant now) {
+        var clock = Clock.fixed(now, ZoneOffset.UTC);
+        return new ScheduledNodeDirectory(delegate, store, scheduler, clock, mock(Monitor.class));
+    }
+
+    private static FederatedCacheNode node(String name) {
+        return new FederatedCacheNode("did:web:" + name, "http://" + name + "/api/dsp", List.of("dataspace-protocol-http"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardedNodeDirectoryTest {
+
+    private static final int REPLICA_COUNT = 3;
+
+    private final FederatedCacheNodeDirectory delegate = mock(FederatedCacheNodeDirectory.class);
+    private final ConsistentHashRing ring = new ConsistentHashRing(REPLICA_COUNT, 128);
+
+    @Test
+    void getAll_replicasShareNodesWithoutOverlap() {
+        var nodes = IntStream.range(0, 50)
+                .mapToObj(i -> new FederatedCacheNode("did:web:company" + i, "http://company" + i + "/api/dsp", List.of("dataspace-protocol-http")))
+                .collect(Collectors.toList());
+        when(delegate.getAll()).thenReturn(nodes);
+
+        var crawled = new ArrayList<FederatedCacheNode>();
+        for (var replicaId = 0; replicaId < REPLICA_COUNT; replicaId++) {
+            var replicaNodes = new ShardedNodeDirectory(delegate, ring, replicaId).getAll();
+            assertThat(replicaNodes).isNotEmpty();
+            crawled.addAll(replicaNodes);
+        }
+
+        assertThat(crawled).containsExactlyInAnyOrderElementsOf(nodes);
+    }
+
+    @Test
+    void insert_delegates() {
+        var node = new FederatedCacheNode("did:web:company1", "http://company1/api/dsp", List.of("dataspace-protocol-http"));
+
+        new ShardedNodeDirectory(delegate, ring, 0).insert(node);
+
+        verify(delegate).insert(node);
+    }
+}
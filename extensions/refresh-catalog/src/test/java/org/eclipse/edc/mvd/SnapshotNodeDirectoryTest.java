@@ -0,0 +1,265 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotNodeDirectoryTest {
+
+    private final RegistrationServiceNodeDirectory delegate = mock(RegistrationServiceNodeDirectory.class);
+    private final Monitor monitor = mock(Monitor.class);
+    private final NodeSnapshotFile snapshotFile = mock(NodeSnapshotFile.class);
+    private final SnapshotNodeDirectory directory = new SnapshotNodeDirectory(delegate, mock(ScheduledExecutorService.class), snapshotFile, monitor);
+
+    @Test
+    void getAll_buildsFirstSnapshotOnDemand() {
+        var node = node("did:web:company1");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node)));
+
+        assertThat(directory.getAll()).containsExactly(node);
+        assertThat(directory.getAll()).containsExactly(node);
+        verify(delegate, times(1)).refresh();
+    }
+
+    @Test
+    void getAll_servesSnapshotUntilRefreshed() {
+        var node1 = node("did:web:company1");
+        var node2 = node("did:web:company2");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node1)), Result.success(List.of(node1, node2)));
+
+        directory.refresh();
+        assertThat(directory.getAll()).containsExactly(node1);
+
+        directory.refresh();
+        assertThat(directory.getAll()).containsExactly(node1, node2);
+    }
+
+    @Test
+    void refresh_failureKeepsPreviousSnapshot() {
+        var node = node("did:web:company1");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node)), Result.failure("failure"));
+
+        directory.refresh();
+        directory.refresh();
+
+        assertThat(directory.getAll()).containsExactly(node);
+    }
+
+    @Test
+    void refresh_exceptionKeepsPreviousSnapshot() {
+        var node = node("did:web:company1");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node))).thenThrow(new RuntimeException("boom"));
+
+        directory.refresh();
+        directory.refresh();
+
+        assertThat(directory.getAll()).containsExactly(node);
+    }
+
+    @Test
+    void getAll_noSnapshotAvailable() {
+        when(delegate.refresh()).thenReturn(Result.failure("failure"));
+
+        assertThat(directory.getAll()).isEmpty();
+    }
+
+    @Test
+    void loadPersisted_servesPersistedNodesUntilRefreshed() {
+        var persisted = node("did:web:company1");
+        var fresh = node("did:web:company2");
+        when(snapshotFile.read()).thenReturn(Optional.of(List.of(persisted)));
+        when(delegate.refresh()).thenReturn(Result.success(List.of(fresh)));
+
+        directory.loadPersisted();
+        assertThat(directory.getAll()).containsExactly(persisted);
+        verify(delegate, never()).refresh();
+
+        directory.refresh();
+        assertThat(directory.getAll()).containsExactly(fresh);
+        verify(snapshotFile).write(List.of(fresh));
+    }
+
+    @Test
+    void refresh_persistsOnlyChangedSnapshots() {
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node("did:web:company1"))), Result.success(List.of(node("did:web:company1"))));
+
+        directory.refresh();
+        directory.refresh();
+
+        verify(snapshotFile, times(1)).write(any());
+    }
+
+    @Test
+    void refresh_failureIsNotPersisted() {
+        when(delegate.refresh()).thenReturn(Result.failure("failure"));
+
+        directory.refresh();
+
+        verify(snapshotFile, never()).write(any());
+    }
+
+    @Test
+    void insert_addsAndUpdatesNodesByDid() {
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node("did:web:company1"))));
+        directory.refresh();
+
+        var added = node("did:web:company2");
+        directory.insert(added);
+        var updated = new FederatedCacheNode("did:web:company1", "http://updated.target.url", List.of("dataspace-protocol-http"));
+        directory.insert(updated);
+
+        assertThat(directory.getAll()).containsExactly(updated, added);
+        verify(delegate, times(1)).refresh();
+    }
+
+    @Test
+    void remove_dropsNode() {
+        var node = node("did:web:company2");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(node("did:web:company1"), node)));
+        directory.refresh();
+
+        directory.remove("did:web:company1");
+        directory.remove("did:web:unknown");
+
+        assertThat(directory.getAll()).containsExactly(node);
+    }
+
+    @Test
+    void insertAndRemove_handedToDelegateForReconciliation() {
+        var pushed = node("did:web:company2");
+
+        directory.insert(pushed);
+        directory.remove("did:web:company1");
+
+        verify(delegate).insert(pushed);
+        verify(delegate).remove("did:web:company1");
+    }
+
+    @Test
+    void refresh_keepsDeltasReceivedWhileInFlight() {
+        var registered = node("did:web:company1");
+        var pushed = node("did:web:company2");
+        when(delegate.refresh()).thenAnswer(i -> {
+            directory.insert(pushed);
+            return Result.success(List.of(registered));
+        });
+
+        directory.refresh();
+
+        assertThat(directory.getAll()).containsExactly(registered, pushed);
+    }
+
+    @Test
+    void refresh_concurrentCallJoinsRefreshInFlight() throws InterruptedException {
+        var registered = node("did:web:company1");
+        var pushed = node("did:web:company2");
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(delegate.refresh()).thenAnswer(i -> {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Result.success(List.of(registered));
+        });
+
+        var first = new Thread(directory::refresh);
+        first.start();
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+        directory.insert(pushed);
+        var second = new Thread(directory::refresh);
+        second.start();
+        var deadline = System.currentTimeMillis() + 10_000;
+        while (second.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        first.join(10_000);
+        second.join(10_000);
+
+        assertThat(directory.getAll()).containsExactly(registered, pushed);
+        verify(delegate, times(1)).refresh();
+    }
+
+    @Test
+    void insert_persistsSnapshot() {
+        var node = node("did:web:company1");
+        when(delegate.refresh()).thenReturn(Result.success(List.of()));
+        directory.refresh();
+
+        directory.insert(node);
+
+        verify(snapshotFile).write(List.of(node));
+    }
+
+    @Test
+    void insert_beforeFirstSnapshotQueuedUntilRefreshed() {
+        var registered = node("did:web:company1");
+        var pushed = node("did:web:company2");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(registered)));
+
+        directory.insert(pushed);
+
+        verify(snapshotFile, never()).write(any());
+        assertThat(directory.getAll()).containsExactly(registered, pushed);
+        verify(delegate, times(1)).refresh();
+    }
+
+    @Test
+    void insert_notBlockedBySnapshotWrite() throws InterruptedException {
+        var registered = node("did:web:company1");
+        var slow = node("did:web:company2");
+        var fast = node("did:web:company3");
+        when(delegate.refresh()).thenReturn(Result.success(List.of(registered)));
+        directory.refresh();
+        var writing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        doAnswer(i -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(snapshotFile).write(any());
+
+        var writer = new Thread(() -> directory.insert(slow));
+        writer.start();
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        directory.insert(fast);
+        assertThat(directory.getAll()).containsExactly(registered, slow, fast);
+
+        release.countDown();
+        writer.join(10_000);
+        verify(snapshotFile).write(List.of(registered, slow, fast));
+    }
+
+    private FederatedCacheNode node(String name) {
+        return new FederatedCacheNode(name, "http://test.target.url", List.of("dataspace-protocol-http"));
+    }
+}
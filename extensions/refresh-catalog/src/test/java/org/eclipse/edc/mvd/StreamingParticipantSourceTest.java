@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.registration.client.model.ParticipantDto;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class StreamingParticipantSourceTest {
+
+    private static final String API_URL = "http://registration-service/api/authority";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    @SuppressWarnings("unchecked")
+    private final HttpResponse<InputStream> response = mock(HttpResponse.class);
+    private final StreamingParticipantSource source = new StreamingParticipantSource(httpClient, new RegistrationServiceRequests(API_URL, REQUEST_TIMEOUT,
+            parameters -> Result.success(TokenRepresentation.Builder.newInstance().token("token").build())), new ObjectMapper());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(httpClient.send(any(HttpRequest.class), any())).thenAnswer(i -> response);
+    }
+
+    @Test
+    void forEach_parsesParticipants() throws Exception {
+        respond(200, "[{\"did\":\"did:web:company1\",\"status\":\"ONBOARDED\"},{\"did\":\"did:web:company2\",\"status\":\"ONBOARDED\"}]");
+        var participants = new ArrayList<ParticipantDto>();
+
+        var result = source.forEach(participants::add);
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).isEqualTo(2);
+        assertThat(participants).extracting(ParticipantDto::getDid).containsExactly("did:web:company1", "did:web:company2");
+        verify(httpClient).send(argThat(request -> request.uri().toString().equals(API_URL + "/registry/participants") &&
+                request.headers().firstValue("Authorization").orElse("").equals("Bearer token") &&
+                request.timeout().equals(Optional.of(REQUEST_TIMEOUT))), any());
+    }
+
+    @Test
+    void forEach_emptyList() {
+        respond(200, "[]");
+
+        var result = source.forEach(participant -> { });
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).isZero();
+    }
+
+    @Test
+    void forEach_errorStatus() {
+        respond(401, "");
+
+        assertThat(source.forEach(participant -> { }).failed()).isTrue();
+    }
+
+    @Test
+    void forEach_notAnArray() {
+        respond(200, "{\"did\":\"did:web:company1\"}");
+
+        assertThat(source.forEach(participant -> { }).failed()).isTrue();
+    }
+
+    @Test
+    void forEach_truncatedBody() {
+        respond(200, "[{\"did\":\"did:web:company1\",\"status\":\"ONBOARDED\"},{\"did\":");
+        var participants = new ArrayList<ParticipantDto>();
+
+        var result = source.forEach(participants::add);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(participants).hasSize(1);
+    }
+
+    @Test
+    void forEach_connectionFailure() throws Exception {
+        when(httpClient.send(any(HttpRequest.class), any())).thenThrow(new IOException("connection refused"));
+
+        assertThat(source.forEach(participant -> { }).failed()).isTrue();
+    }
+
+    @Test
+    void forEach_tokenFailure() {
+        var unauthenticated = new StreamingParticipantSource(httpClient, new RegistrationServiceRequests(API_URL, REQUEST_TIMEOUT, parameters -> Result.failure("no key")), new ObjectMapper());
+
+        assertThat(unauthenticated.forEach(participant -> { }).failed()).isTrue();
+        verifyNoInteractions(httpClient);
+    }
+
+    private void respond(int status, String body) {
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
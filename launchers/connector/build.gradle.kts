@@ -24,8 +24,12 @@ var distZip = tasks.getByName("distZip")
 dependencies {
     runtimeOnly(project(":extensions:refresh-catalog"))
     runtimeOnly(project(":extensions:policies"))
+    runtimeOnly(project(":extensions:catalog-store"))
 
     runtimeOnly(libs.bundles.connector)
+    runtimeOnly(libs.edc.core.micrometer)
+    runtimeOnly(libs.edc.ext.micrometer.jetty)
+    runtimeOnly(libs.edc.ext.micrometer.jersey)
     runtimeOnly(libs.edc.core.controlplane)
     runtimeOnly(libs.edc.core.controlplane.api)
     runtimeOnly(libs.edc.core.controlplane.api.client)
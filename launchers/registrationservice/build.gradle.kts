@@ -22,6 +22,8 @@ var distTar = tasks.getByName("distTar")
 var distZip = tasks.getByName("distZip")
 
 dependencies {
+    runtimeOnly(project(":extensions:participant-endpoints"))
+
     runtimeOnly(libs.bundles.connector)
     runtimeOnly(libs.bundles.identity)
     runtimeOnly(libs.edc.core.micrometer)
@@ -3,8 +3,12 @@ rootProject.name = "mvd"
 include(":launchers:connector")
 include(":launchers:registrationservice")
 include(":system-tests")
+include(":benchmarks")
 include(":extensions:refresh-catalog")
 include(":extensions:policies")
+include(":extensions:participant-endpoints")
+include(":extensions:catalog-store")
+include(":extensions:catalog-fingerprint")
 
 pluginManagement {
     repositories {
@@ -20,8 +20,10 @@ function seedVerifiedCredentials() {
   local participantName="$1"
   local participantDid="$2"
   local region="$3"
+  local country="$4"
 
-   for subject in '"region": "'$region'"'
+   # the country lets the regionHierarchy constraint match the regions containing it, e.g. FR in eu
+   for subject in '"region": "'$region'", "country": "'$country'"'
    do
      echo "Seeding VC for $participantName: $subject"
      java -jar identity-hub-cli.jar \
@@ -37,10 +39,11 @@ function seedVerifiedCredentials() {
 function seedAndRegisterParticipant() {
   local participantName="$1"
   local region="$2"
+  local country="$3"
   local participantDid="did:web:did-server:$participantName"
 
   # seed vc for participant
-  seedVerifiedCredentials "$participantName" "$participantDid" "$region"
+  seedVerifiedCredentials "$participantName" "$participantDid" "$region" "$country"
 
   # Register dataspace participants
   registerParticipant "$participantName" "$participantDid"
@@ -63,9 +66,9 @@ function awaitParticipantRegistration() {
 }
 
 # Read participants from participants.json file.
-# $participants will contain participants and regions in a shell readable format e.g.:
-# 'company1' 'eu' \n 'company2' 'eu' \n 'company3' 'us'
-participants=$(jq -r '.include | map([.participant, .region])[] | @sh' /common-resources/participants.json)
+# $participants will contain participants, regions and countries in a shell readable format e.g.:
+# 'company1' 'eu' 'FR' \n 'company2' 'eu' 'DE' \n 'company3' 'us' 'US'
+participants=$(jq -r '.include | map([.participant, .region, .country])[] | @sh' /common-resources/participants.json)
 
 # Seed VCs and register participants.
 while read -r i; do
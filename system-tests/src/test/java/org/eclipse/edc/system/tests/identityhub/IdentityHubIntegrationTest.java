@@ -72,6 +72,8 @@ class IdentityHubIntegrationTest {
                 .untilAsserted(() -> twoCredentialsInIdentityHub(hubUrl));
 
         twoCredentialsInIdentityHub(hubUrl).anySatisfy(vcRequirements("region", region));
+        // the country claim is what places a participant within the region hierarchy of the regionHierarchy constraint
+        twoCredentialsInIdentityHub(hubUrl).anySatisfy(vcRequirements("country", country));
     }
 
     @ParameterizedTest